@@ -2,8 +2,10 @@ package org.greenify.greenify;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GreenifyApplication {
 
     public static void main(String[] args) {
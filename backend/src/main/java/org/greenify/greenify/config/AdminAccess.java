@@ -0,0 +1,23 @@
+package org.greenify.greenify.config;
+
+import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.repository.UserRepo;
+import org.springframework.stereotype.Component;
+
+/**
+ * Users allowed to call /api/admin/** and the actuator endpoints: those whose row has the admin flag.
+ * Checked against the database on each call, so revoking the flag takes effect at once.
+ */
+@Component
+public class AdminAccess {
+
+    private final UserRepo userRepo;
+
+    public AdminAccess(UserRepo userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    public boolean isAdmin(UserPrincipal me) {
+        return me != null && me.getId() != null && userRepo.existsByIdAndAdminTrue(me.getId());
+    }
+}
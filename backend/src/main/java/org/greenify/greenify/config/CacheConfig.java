@@ -0,0 +1,12 @@
+package org.greenify.greenify.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine sizing/TTL comes from spring.cache.caffeine.spec; hit/miss metrics are published as cache.gets.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String STREAKS = "streaks";
+}
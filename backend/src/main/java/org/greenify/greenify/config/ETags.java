@@ -0,0 +1,100 @@
+package org.greenify.greenify.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.greenify.greenify.dto.Stamped;
+import org.greenify.greenify.event.DailyEntryChangedEvent;
+import org.greenify.greenify.event.StreakChangedEvent;
+import org.greenify.greenify.event.UserDeletedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for polled resources. The current ETag of each resource is cached in memory
+ * and dropped when a committed change event touches it, so a matching If-None-Match is answered
+ * with 304 before any database access.
+ */
+@Component
+public class ETags {
+
+    private static final int STRIPES = 64;
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final Cache<String, String> current;
+    // Bumped on every invalidation; a tag read from the DB is only cached if its stripe didn't move meanwhile.
+    private final AtomicLong[] epochs = new AtomicLong[STRIPES];
+
+    // Invalidation only reaches this instance; the expiry bounds how long a change made elsewhere can go unseen.
+    public ETags(@Value("${etag.cache.max-size:50000}") long maxSize,
+                 @Value("${etag.cache.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.current = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(expireAfterWrite).build();
+        for (int i = 0; i < STRIPES; i++) epochs[i] = new AtomicLong();
+    }
+
+    public static String streakKey(Long userId) {
+        return "streak:" + userId;
+    }
+
+    public static String entryKey(Long userId, LocalDate date) {
+        return "entry:" + userId + ":" + date;
+    }
+
+    /**
+     * Answers 304 from the cached tag when possible, otherwise loads the resource and returns it
+     * with its ETag. Returns null once a 304 has been written, as Spring expects.
+     */
+    public <T> ResponseEntity<T> conditional(ServletWebRequest request, String key, Supplier<Stamped<T>> load) {
+        // Browsers only revalidate (and send If-None-Match) if the response is allowed in their cache.
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        String cached = current.getIfPresent(key);
+        if (cached != null && request.checkNotModified(cached)) return null;
+
+        AtomicLong epoch = stripe(key);
+        long seen = epoch.get();
+        Stamped<T> loaded = load.get();
+        String etag = "\"" + loaded.version() + "\"";
+        if (epoch.get() == seen) {
+            current.put(key, etag);
+            if (epoch.get() != seen) current.invalidate(key);
+        }
+        return ResponseEntity.ok().eTag(etag).body(loaded.body());
+    }
+
+    public void invalidate(String key) {
+        stripe(key).incrementAndGet();
+        current.invalidate(key);
+    }
+
+    // Entry writes also move the streak, which the pipeline updates later.
+    @TransactionalEventListener
+    public void onEntryChanged(DailyEntryChangedEvent e) {
+        invalidate(entryKey(e.userId(), e.date()));
+        invalidate(streakKey(e.userId()));
+    }
+
+    @TransactionalEventListener
+    public void onStreakChanged(StreakChangedEvent e) {
+        invalidate(streakKey(e.userId()));
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent e) {
+        invalidate(streakKey(e.userId()));
+    }
+
+    private AtomicLong stripe(String key) {
+        return epochs[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+}
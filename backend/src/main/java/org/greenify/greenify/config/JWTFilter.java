@@ -5,6 +5,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.service.DisabledUsers;
 import org.greenify.greenify.service.JWTService;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,9 +19,11 @@ import java.io.IOException;
 public class JWTFilter extends OncePerRequestFilter {
 
     private final JWTService jwtService;
+    private final DisabledUsers disabledUsers;
 
-    public JWTFilter(JWTService jwtService) {
+    public JWTFilter(JWTService jwtService, DisabledUsers disabledUsers) {
         this.jwtService = jwtService;
+        this.disabledUsers = disabledUsers;
     }
 
     @Override
@@ -44,18 +47,16 @@ public class JWTFilter extends OncePerRequestFilter {
                 && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             String token = header.substring(7);
-            if (jwtService.validateToken(token)) {
-                String username = jwtService.extractUserName(token);
-                Long userId = jwtService.extractUserId(token);
-
-                UserPrincipal principal = UserPrincipal.fromJwt(userId, username);
+            // Tokens of deleted accounts stay valid until they expire; they just stop authenticating.
+            jwtService.verify(token).filter(v -> !disabledUsers.isDisabled(v.userId())).ifPresent(v -> {
+                UserPrincipal principal = UserPrincipal.fromJwt(v.userId(), v.username());
 
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
                                 principal, null, principal.getAuthorities());
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
-            }
+            });
         }
         filterChain.doFilter(request, response);
     }
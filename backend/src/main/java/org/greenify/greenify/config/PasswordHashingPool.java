@@ -0,0 +1,85 @@
+package org.greenify.greenify.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency cap for password hashing. Hashing runs on a small fixed pool, but the request
+ * thread still blocks until its result is ready, so this frees no request threads. What it buys
+ * is a bound on the CPU spent hashing: the queue is bounded, so a login storm is rejected with
+ * 503 instead of starving regular API traffic of CPU.
+ */
+@Component
+public class PasswordHashingPool {
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) { super(message); }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public PasswordHashingPool(@Value("${security.password.hashing.threads:0}") int threads,
+                               @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                               @Value("${security.password.hashing.timeout-ms:5000}") long timeoutMs,
+                               MeterRegistry registry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+
+        this.hashTimer = Timer.builder("greenify.password.hashing")
+                .description("Time spent in password hashing/verification")
+                .register(registry);
+        this.rejected = Counter.builder("greenify.password.hashing.rejected")
+                .description("Hashing requests rejected because the pool was saturated")
+                .register(registry);
+        Gauge.builder("greenify.password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .register(registry);
+        Gauge.builder("greenify.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    public <T> T run(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.record(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException("Too many concurrent logins, try again shortly");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new BusyException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,29 +1,43 @@
 package org.greenify.greenify.config;
 
 import org.greenify.greenify.config.JWTFilter;
+import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     private final JWTFilter jwtFilter;
+    private final AdminAccess admin;
+    private final Integer managementPort;
 
-    public SecurityConfig(JWTFilter jwtFilter) {
+    public SecurityConfig(JWTFilter jwtFilter, AdminAccess admin,
+                          @Value("${management.server.port:#{null}}") Integer managementPort,
+                          @Value("${server.port:8080}") int serverPort) {
         this.jwtFilter = jwtFilter;
+        this.admin = admin;
+        this.managementPort = managementPort != null && managementPort > 0 && managementPort != serverPort
+                ? managementPort : null;
     }
 
     @Bean
@@ -33,7 +47,12 @@ public class SecurityConfig {
                 .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .requestMatchers("/api/user/register", "/api/user/login").permitAll()
+                        .requestMatchers("/api/user/register", "/api/user/login", "/api/user/availability").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // A dedicated management port (prod) is only reachable from the internal network, e.g. by Prometheus.
+                        .requestMatchers(r -> managementPort != null && r.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/**").access((authentication, context) -> new AuthorizationDecision(
+                                authentication.get().getPrincipal() instanceof UserPrincipal me && admin.isAdmin(me)))
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().permitAll()
                 )
@@ -41,15 +60,29 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // New hashes use security.password.algorithm; hashes stored before the {id} prefix existed are bcrypt.
+    // Any hash that is not in the current algorithm/cost is re-encoded on the next successful login.
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    PasswordEncoder passwordEncoder(PasswordHashingPool pool,
+                                    @Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                    @Value("${security.password.bcrypt-strength:12}") int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported security.password.algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new OffloadingPasswordEncoder(delegating, pool);
     }
 
     @Bean
-    AuthenticationProvider authenticationProvider(UserDetailsService uds, PasswordEncoder encoder) {
+    AuthenticationProvider authenticationProvider(UserService users, PasswordEncoder encoder) {
         DaoAuthenticationProvider p = new DaoAuthenticationProvider();
-        p.setUserDetailsService(uds);
+        p.setUserDetailsService(users);
+        p.setUserDetailsPasswordService(users);
         p.setPasswordEncoder(encoder);
         return p;
     }
@@ -0,0 +1,71 @@
+package org.greenify.greenify.config;
+
+import org.greenify.greenify.model.enums.ExportFormat;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.CacheControl;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /** Request attribute holding a {@link Duration} that replaces the async timeout for that request only. */
+    public static final String ASYNC_TIMEOUT = WebConfig.class.getName() + ".asyncTimeout";
+
+    private final StatementMetricsInterceptor statementMetrics;
+
+    public WebConfig(StatementMetricsInterceptor statementMetrics) {
+        this.statementMetrics = statementMetrics;
+    }
+
+    // Case-insensitive (?format=csv); an unknown value fails binding and is answered with 400.
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, ExportFormat.class,
+                s -> ExportFormat.valueOf(s.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementMetrics).addPathPatterns("/api/**");
+    }
+
+    // Everything else keeps the default async timeout; only handlers that set ASYNC_TIMEOUT (exports) get longer.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest async
+                        && request.getAttribute(ASYNC_TIMEOUT, RequestAttributes.SCOPE_REQUEST) instanceof Duration timeout) {
+                    async.setTimeout(timeout.toMillis());
+                }
+            }
+        });
+    }
+
+    // Vite content-hashes everything under assets/, so a URL's bytes never change. index.html and the
+    // rest of static/ go through the default handler, which revalidates (spring.web.resources.cache.*).
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+}
@@ -1,31 +1,71 @@
 package org.greenify.greenify.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.greenify.greenify.config.ETags;
+import org.greenify.greenify.config.WebConfig;
+import org.greenify.greenify.dto.DailyEntryPageDTO;
 import org.greenify.greenify.dto.DailyEntryUpsertDTO;
 import org.greenify.greenify.dto.DailyEntryViewDTO;
 import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.model.enums.ExportFormat;
 import org.greenify.greenify.service.DailyEntryService;
+import org.greenify.greenify.service.ExportService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/daily-entry")
 public class DailyEntryController {
 
     private final DailyEntryService service;
+    private final ETags etags;
+    private final ExportService exports;
 
-    public DailyEntryController(DailyEntryService service) {
+    public DailyEntryController(DailyEntryService service, ETags etags, ExportService exports) {
         this.service = service;
+        this.etags = etags;
+        this.exports = exports;
+    }
+
+    @GetMapping
+    public ResponseEntity<DailyEntryPageDTO> getRange(
+            @AuthenticationPrincipal UserPrincipal me,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(service.getRange(me.getId(), from, to, page, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @AuthenticationPrincipal UserPrincipal me,
+            @RequestParam(defaultValue = "csv") ExportFormat format,
+            HttpServletRequest request) {
+        request.setAttribute(WebConfig.ASYNC_TIMEOUT, exports.requestTimeout());
+        Long userId = me.getId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"entries." + format.getExtension() + "\"")
+                .body(out -> exports.export(userId, format, out));
     }
 
     @GetMapping("/{date}")
     public ResponseEntity<DailyEntryViewDTO> getByDate(
             @AuthenticationPrincipal UserPrincipal me,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return ResponseEntity.ok(service.getForDate(me.getId(), date));
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            ServletWebRequest request) {
+        return etags.conditional(request, ETags.entryKey(me.getId(), date),
+                () -> service.getForDate(me.getId(), date));
     }
 
     @PostMapping
@@ -34,4 +74,11 @@ public class DailyEntryController {
             @RequestBody DailyEntryUpsertDTO dto) {
         return ResponseEntity.ok(service.upsert(me.getId(), dto));
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<DailyEntryViewDTO>> upsertBatch(
+            @AuthenticationPrincipal UserPrincipal me,
+            @RequestBody List<DailyEntryUpsertDTO> dtos) {
+        return ResponseEntity.ok(service.upsertBatch(me.getId(), dtos));
+    }
 }
@@ -0,0 +1,44 @@
+package org.greenify.greenify.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.greenify.greenify.config.AdminAccess;
+import org.greenify.greenify.config.WebConfig;
+import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.model.enums.ExportFormat;
+import org.greenify.greenify.service.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/admin/export")
+public class ExportController {
+
+    private final ExportService exports;
+    private final AdminAccess admin;
+
+    public ExportController(ExportService exports, AdminAccess admin) {
+        this.exports = exports;
+        this.admin = admin;
+    }
+
+    // Every user's entries, live and archived, ordered by user and date.
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @AuthenticationPrincipal UserPrincipal me,
+            @RequestParam(defaultValue = "csv") ExportFormat format,
+            HttpServletRequest request) {
+        if (!admin.isAdmin(me)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        request.setAttribute(WebConfig.ASYNC_TIMEOUT, exports.requestTimeout());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"all-entries." + format.getExtension() + "\"")
+                .body(out -> exports.export(null, format, out));
+    }
+}
@@ -0,0 +1,36 @@
+package org.greenify.greenify.controller;
+
+import org.greenify.greenify.dto.LeaderboardView;
+import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.model.enums.LeaderboardMetric;
+import org.greenify.greenify.model.enums.LeaderboardWindow;
+import org.greenify.greenify.service.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    private final LeaderboardService service;
+
+    public LeaderboardController(LeaderboardService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public ResponseEntity<LeaderboardView> get(
+            @AuthenticationPrincipal UserPrincipal me,
+            @RequestParam(defaultValue = "points") String metric,
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(service.view(
+                LeaderboardMetric.valueOf(metric.toUpperCase(Locale.ROOT)),
+                LeaderboardWindow.valueOf(window.toUpperCase(Locale.ROOT)),
+                limit,
+                me.getId()));
+    }
+}
@@ -0,0 +1,44 @@
+package org.greenify.greenify.controller;
+
+import org.greenify.greenify.config.AdminAccess;
+import org.greenify.greenify.dto.ScoringRulesView;
+import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.model.enums.Category;
+import org.greenify.greenify.service.ScoringRules;
+import org.greenify.greenify.service.ScoringService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+public class ScoringController {
+
+    private final ScoringService scoring;
+    private final AdminAccess admin;
+
+    public ScoringController(ScoringService scoring, AdminAccess admin) {
+        this.scoring = scoring;
+        this.admin = admin;
+    }
+
+    @GetMapping("/api/scoring")
+    public ResponseEntity<ScoringRulesView> get() {
+        ScoringRules rules = scoring.active();
+        return ResponseEntity.ok(new ScoringRulesView(rules.version(), rules.perUnit()));
+    }
+
+    // Historical entries are re-scored in the background; the response does not wait for it.
+    @PutMapping("/api/admin/scoring")
+    public ResponseEntity<ScoringRulesView> publish(@AuthenticationPrincipal UserPrincipal me,
+                                                    @RequestBody Map<Category, Double> perUnit) {
+        if (!admin.isAdmin(me)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        scoring.publish(perUnit);
+        ScoringRules rules = scoring.active();
+        return ResponseEntity.accepted().body(new ScoringRulesView(rules.version(), rules.perUnit()));
+    }
+}
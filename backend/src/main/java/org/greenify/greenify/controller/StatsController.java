@@ -0,0 +1,52 @@
+package org.greenify.greenify.controller;
+
+import org.greenify.greenify.dto.CategoryTotalView;
+import org.greenify.greenify.dto.RollupView;
+import org.greenify.greenify.model.UserPrincipal;
+import org.greenify.greenify.model.enums.RollupPeriod;
+import org.greenify.greenify.service.CategoryService;
+import org.greenify.greenify.service.EntryChangePipeline;
+import org.greenify.greenify.service.RollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final RollupService service;
+    private final CategoryService categories;
+    private final EntryChangePipeline pipeline;
+
+    public StatsController(RollupService service, CategoryService categories, EntryChangePipeline pipeline) {
+        this.service = service;
+        this.categories = categories;
+        this.pipeline = pipeline;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RollupView>> get(
+            @AuthenticationPrincipal UserPrincipal me,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RollupPeriod p = RollupPeriod.valueOf(period.toUpperCase(Locale.ROOT));
+        pipeline.flush(me.getId());
+        return ResponseEntity.ok(service.range(me.getId(), p, from, to));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryTotalView>> categories(
+            @AuthenticationPrincipal UserPrincipal me,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        pipeline.flush(me.getId());
+        return ResponseEntity.ok(categories.totals(me.getId(), from, to));
+    }
+}
@@ -1,31 +1,37 @@
 package org.greenify.greenify.controller;
 
-import org.greenify.greenify.model.Streak;
+import org.greenify.greenify.config.ETags;
+import org.greenify.greenify.dto.Stamped;
 import org.greenify.greenify.model.UserPrincipal;
-import org.greenify.greenify.repository.StreakRepo;
+import org.greenify.greenify.service.EntryChangePipeline;
+import org.greenify.greenify.service.StreakService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.Map;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("/api/streak")
 public class StreakController {
 
-    private final StreakRepo repo;
+    private final StreakService service;
+    private final EntryChangePipeline pipeline;
+    private final ETags etags;
 
-    public StreakController(StreakRepo repo) { this.repo = repo; }
+    public StreakController(StreakService service, EntryChangePipeline pipeline, ETags etags) {
+        this.service = service;
+        this.pipeline = pipeline;
+        this.etags = etags;
+    }
 
-    @GetMapping
-    public ResponseEntity<?> get(@AuthenticationPrincipal UserPrincipal me) {
-        Streak s = repo.findById(me.getId()).orElse(null);
-        if (s == null) return ResponseEntity.ok(Map.of("current", 0, "longest", 0));
-        return ResponseEntity.ok(Map.of(
-                "current", s.getCurrentStreak(),
-                "longest", s.getHighestStreak(),
-                "goal", s.getGoalPoints(),
-                "lastDate", s.getLastQualifyingDate()!=null ? s.getLastQualifyingDate().toString() : null
-        ));
+    // Body is the pre-serialized StreakView cached by StreakService.
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> get(@AuthenticationPrincipal UserPrincipal me, ServletWebRequest request) {
+        return etags.conditional(request, ETags.streakKey(me.getId()), () -> {
+            pipeline.flush(me.getId());
+            StreakService.Rendered r = service.view(me.getId());
+            return new Stamped<>(r.json(), r.version());
+        });
     }
 }
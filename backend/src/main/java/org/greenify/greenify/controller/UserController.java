@@ -1,5 +1,7 @@
 package org.greenify.greenify.controller;
 
+import org.greenify.greenify.dto.AvailabilityView;
+import org.greenify.greenify.dto.UserHandle;
 import org.greenify.greenify.model.User;
 import org.greenify.greenify.model.UserPrincipal;
 import org.greenify.greenify.service.JWTService;
@@ -7,6 +9,8 @@ import org.greenify.greenify.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -50,26 +54,36 @@ public class UserController {
         ));
     }
 
+    // For live checks while typing; registration still checks again. Usernames only: they are
+    // public on the leaderboard anyway, whereas an email check would let anyone probe for accounts.
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityView> availability(@RequestParam String username) {
+        return ResponseEntity.ok(new AvailabilityView(!userService.existsByUsername(username)));
+    }
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginReq req) {
-        authManager.authenticate(new UsernamePasswordAuthenticationToken(req.username(), req.password()));
-        User user = userService.existsByUsername(req.username())
-                ? userService.loadUserByUsername(req.username()) instanceof UserPrincipal up
-                ? up.getUser() : null
-                : null;
-        if (user == null) return ResponseEntity.status(401).body("Invalid credentials");
-        String token = jwtService.generateToken(user.getId(), user.getUsername());
+        Authentication auth;
+        try {
+            auth = authManager.authenticate(new UsernamePasswordAuthenticationToken(req.username(), req.password()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(401).body("Invalid credentials");
+        }
+        if (!(auth.getPrincipal() instanceof UserPrincipal up)) {
+            return ResponseEntity.status(401).body("Invalid credentials");
+        }
+        String token = jwtService.generateToken(up.getId(), up.getUsername());
         return ResponseEntity.ok(token);
     }
 
     @GetMapping("/me")
     public ResponseEntity<?> me(@AuthenticationPrincipal UserPrincipal me) {
         if (me == null) return ResponseEntity.status(401).build();
-        User u = userService.getByUserId(me.getId());
+        UserHandle u = userService.getByUserId(me.getId());
         return ResponseEntity.ok(Map.of(
-                "id", u.getId(),
-                "username", u.getUsername(),
-                "email", u.getEmail()
+                "id", u.id(),
+                "username", u.username(),
+                "email", u.email()
         ));
     }
 
@@ -0,0 +1,6 @@
+package org.greenify.greenify.dto;
+
+import org.greenify.greenify.model.enums.Category;
+import org.greenify.greenify.model.enums.Unit;
+
+public record CategoryTotalView(Category category, Unit unit, Long quantity, Long points, Long days) {}
@@ -0,0 +1,9 @@
+package org.greenify.greenify.dto;
+
+import java.util.List;
+
+public record DailyEntryPageDTO(
+        List<DailyEntryViewDTO> entries,
+        int page,
+        boolean hasNext
+) {}
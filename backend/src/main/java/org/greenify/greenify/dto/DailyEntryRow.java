@@ -0,0 +1,13 @@
+package org.greenify.greenify.dto;
+
+import java.time.LocalDate;
+
+public record DailyEntryRow(
+        LocalDate date,
+        int milesDriven,
+        int trashCount,
+        int recycleCount,
+        boolean reusableBag,
+        boolean reusableBottle,
+        int pointsTotal
+) {}
@@ -0,0 +1,14 @@
+package org.greenify.greenify.dto;
+
+import java.time.LocalDate;
+
+public record ExportRow(
+        Long userId,
+        LocalDate date,
+        int milesDriven,
+        int trashCount,
+        int recycleCount,
+        boolean reusableBag,
+        boolean reusableBottle,
+        int pointsTotal
+) {}
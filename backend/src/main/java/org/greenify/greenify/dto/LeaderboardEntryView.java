@@ -0,0 +1,3 @@
+package org.greenify.greenify.dto;
+
+public record LeaderboardEntryView(int rank, Long userId, String username, long score) {}
@@ -0,0 +1,11 @@
+package org.greenify.greenify.dto;
+
+import java.util.List;
+
+public record LeaderboardView(
+        String metric,
+        String window,
+        String windowStart,
+        List<LeaderboardEntryView> top,
+        LeaderboardEntryView me
+) {}
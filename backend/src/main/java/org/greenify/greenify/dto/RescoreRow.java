@@ -0,0 +1,11 @@
+package org.greenify.greenify.dto;
+
+public record RescoreRow(
+        Long id,
+        long version,
+        int milesDriven,
+        int trashCount,
+        int recycleCount,
+        boolean reusableBag,
+        boolean reusableBottle
+) {}
@@ -0,0 +1,12 @@
+package org.greenify.greenify.dto;
+
+public record RollupView(
+        String periodStart,
+        int pointsTotal,
+        int milesDriven,
+        int trashCount,
+        int recycleCount,
+        int reusableBagDays,
+        int reusableBottleDays,
+        int entryDays
+) {}
@@ -0,0 +1,7 @@
+package org.greenify.greenify.dto;
+
+import org.greenify.greenify.model.enums.Category;
+
+import java.util.Map;
+
+public record ScoringRulesView(int version, Map<Category, Double> pointsPerUnit) {}
@@ -0,0 +1,4 @@
+package org.greenify.greenify.dto;
+
+/** A response body together with an opaque version of the data it was built from. */
+public record Stamped<T>(T body, String version) {}
@@ -1,5 +1,8 @@
 package org.greenify.greenify.dto;
 
-public record StreakView(int current, int longest, int dailyGoalPoints, String lastQualifyingDate) {
-}
+import com.fasterxml.jackson.annotation.JsonProperty;
 
+public record StreakView(int current, int longest,
+                         @JsonProperty("goal") int dailyGoalPoints,
+                         @JsonProperty("lastDate") String lastQualifyingDate) {
+}
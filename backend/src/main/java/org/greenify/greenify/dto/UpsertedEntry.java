@@ -0,0 +1,5 @@
+package org.greenify.greenify.dto;
+
+import java.time.LocalDate;
+
+public record UpsertedEntry(LocalDate date, int previousPoints) {}
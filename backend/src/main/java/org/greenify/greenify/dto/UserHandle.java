@@ -0,0 +1,3 @@
+package org.greenify.greenify.dto;
+
+public record UserHandle(Long id, String username, String email) {}
@@ -0,0 +1,3 @@
+package org.greenify.greenify.dto;
+
+public record UsernameView(Long id, String username) {}
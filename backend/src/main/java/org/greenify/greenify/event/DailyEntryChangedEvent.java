@@ -0,0 +1,5 @@
+package org.greenify.greenify.event;
+
+import java.time.LocalDate;
+
+public record DailyEntryChangedEvent(Long userId, LocalDate date, int oldPoints, int newPoints) {}
@@ -0,0 +1,3 @@
+package org.greenify.greenify.event;
+
+public record UserDeletedEvent(Long userId) {}
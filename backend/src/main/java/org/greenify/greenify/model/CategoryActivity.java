@@ -0,0 +1,29 @@
+package org.greenify.greenify.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.greenify.greenify.model.enums.Unit;
+
+/**
+ * One category's activity on one day, e.g. 12 MILE of TRANSPORT. Only non-zero categories
+ * are stored; rows are rewritten from the day's entry by the entry change pipeline.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "category_activity")
+public class CategoryActivity {
+
+    @EmbeddedId
+    private CategoryActivityId id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8, nullable = false)
+    private Unit unit;
+
+    private int quantity;
+    private int points;
+}
@@ -0,0 +1,29 @@
+package org.greenify.greenify.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.greenify.greenify.model.enums.Category;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryActivityId implements Serializable {
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private LocalDate date;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Category category;
+}
@@ -3,16 +3,21 @@ package org.greenify.greenify.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "ux_daily_entry_user_date", columnList = "user_id, date", unique = true))
 public class DailyEntry {
 
+    // Sequence (not IDENTITY) so Hibernate can pre-allocate ids and batch inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_entry_seq")
+    @SequenceGenerator(name = "daily_entry_seq", sequenceName = "daily_entry_seq", allocationSize = 50)
     private Long id;
 
     private int milesDriven;
@@ -22,12 +27,24 @@ public class DailyEntry {
     private boolean reusableBottle;
 
     private int pointsTotal;
-    private java.time.LocalDate date;
 
-    @Column(columnDefinition = "text", nullable = true)
-    private String byCategoryJson;
+    // Points this row held before its latest upsert; written by DailyEntryUpsertRepo.
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int previousPoints;
+
+    // Incremented by every upsert; used as the entry's ETag.
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    // Version of the ScoringRules that produced pointsTotal.
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int scoringVersion;
+
+    private java.time.LocalDate date;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 }
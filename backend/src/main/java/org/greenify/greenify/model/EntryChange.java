@@ -0,0 +1,47 @@
+package org.greenify.greenify.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A committed entry write whose streak and rollup effects have not been applied yet.
+ * Rows are written in the entry's transaction and removed once the pipeline has processed them.
+ * A change whose run keeps failing is parked after a number of attempts and left for an operator.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "entry_change", indexes = @Index(name = "ix_entry_change_user", columnList = "user_id"))
+public class EntryChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entry_change_seq")
+    @SequenceGenerator(name = "entry_change_seq", sequenceName = "entry_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    private Instant retryAfter;
+    private Instant parkedAt;
+
+    public EntryChange(Long userId, LocalDate date) {
+        this.userId = userId;
+        this.date = date;
+    }
+}
@@ -0,0 +1,25 @@
+package org.greenify.greenify.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "entry_rollup")
+public class EntryRollup {
+
+    @EmbeddedId
+    private EntryRollupId id;
+
+    private int pointsTotal;
+    private int milesDriven;
+    private int trashCount;
+    private int recycleCount;
+    private int reusableBagDays;
+    private int reusableBottleDays;
+    private int entryDays;
+}
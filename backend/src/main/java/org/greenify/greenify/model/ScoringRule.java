@@ -0,0 +1,35 @@
+package org.greenify.greenify.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** Points per unit for one category in one version of the scoring rules. The highest version is active. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "scoring_rule")
+public class ScoringRule {
+
+    @EmbeddedId
+    private ScoringRuleId id;
+
+    private double pointsPerUnit;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    // Set on every row of the version; see ScoringRuleRepo.claimRescore.
+    private Instant rescoreClaimedAt;
+
+    private Instant rescoredAt;
+
+    public ScoringRule(ScoringRuleId id, double pointsPerUnit) {
+        this.id = id;
+        this.pointsPerUnit = pointsPerUnit;
+    }
+}
@@ -0,0 +1,25 @@
+package org.greenify.greenify.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.greenify.greenify.model.enums.Category;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringRuleId implements Serializable {
+
+    private int version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Category category;
+}
@@ -3,7 +3,9 @@ package org.greenify.greenify.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDate;
 
@@ -16,9 +18,11 @@ public class Streak {
     @Column(name = "user_id")
     private Long userId;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @MapsId
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     private int currentStreak = 0;
@@ -26,4 +30,12 @@ public class Streak {
     private LocalDate lastQualifyingDate;
     private int goalPoints = 10;
 
+    // Qualifying-day bitmap (see StreakBitmap) and the latest day that has any entry.
+    private LocalDate bitmapOrigin;
+    private byte[] qualifyingDays;
+    private LocalDate lastEntryDate;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -31,4 +31,14 @@ public class User {
 
     @Column(nullable = false)
     private Instant createdAt = Instant.now();
+
+    // Set when the account is deleted; the row itself goes once the background purge is done.
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean disabled;
+
+    private Instant disabledAt;
+
+    // Granted by an operator (see V6); never derived from the username.
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean admin;
 }
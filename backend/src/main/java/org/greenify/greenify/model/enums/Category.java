@@ -1,5 +1,15 @@
 package org.greenify.greenify.model.enums;
 
 public enum Category {
-    TRANSPORT, FOOD, WASTE, REUSABLE, RECYCLING
+    TRANSPORT(Unit.MILE), FOOD(Unit.COUNT), WASTE(Unit.COUNT), REUSABLE(Unit.COUNT), RECYCLING(Unit.COUNT);
+
+    private final Unit unit;
+
+    Category(Unit unit) {
+        this.unit = unit;
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
 }
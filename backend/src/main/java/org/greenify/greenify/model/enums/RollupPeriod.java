@@ -0,0 +1,5 @@
+package org.greenify.greenify.model.enums;
+
+public enum RollupPeriod {
+    WEEK, MONTH
+}
@@ -0,0 +1,26 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.dto.CategoryTotalView;
+import org.greenify.greenify.model.CategoryActivity;
+import org.greenify.greenify.model.CategoryActivityId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CategoryActivityRepo extends JpaRepository<CategoryActivity, CategoryActivityId>, CategoryActivityWriteRepo {
+
+    @Query("""
+            select new org.greenify.greenify.dto.CategoryTotalView(
+                a.id.category, a.unit, sum(a.quantity), sum(a.points), count(a))
+            from CategoryActivity a
+            where a.id.userId = :userId and a.id.date between :from and :to
+            group by a.id.category, a.unit
+            order by a.id.category
+            """)
+    List<CategoryTotalView> totalsByCategory(@Param("userId") Long userId,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+}
@@ -0,0 +1,12 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.service.CategoryBreakdown;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface CategoryActivityWriteRepo {
+
+    /** Replaces the user's category rows for each given day with that day's non-zero categories. */
+    void replace(Long userId, Map<LocalDate, CategoryBreakdown> days);
+}
@@ -0,0 +1,58 @@
+package org.greenify.greenify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.greenify.greenify.model.enums.Category;
+import org.greenify.greenify.service.CategoryBreakdown;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// Two statements per call however many days and categories: one delete, one multi-row insert.
+class CategoryActivityWriteRepoImpl implements CategoryActivityWriteRepo {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public void replace(Long userId, Map<LocalDate, CategoryBreakdown> days) {
+        if (days.isEmpty()) return;
+
+        em.createNativeQuery("delete from category_activity where user_id = :userId and date in (:dates)")
+                .setParameter("userId", userId)
+                .setParameter("dates", days.keySet())
+                .executeUpdate();
+
+        StringJoiner values = new StringJoiner(", ");
+        int n = 0;
+        for (CategoryBreakdown b : days.values()) {
+            for (Category c : Category.values()) {
+                if (b.isEmpty(c)) continue;
+                values.add("(:userId, :date" + n + ", :category" + n + ", :unit" + n + ", :quantity" + n + ", :points" + n + ")");
+                n++;
+            }
+        }
+        if (n == 0) return;
+
+        Query q = em.createNativeQuery("""
+                insert into category_activity (user_id, date, category, unit, quantity, points)
+                values %s
+                """.formatted(values)).setParameter("userId", userId);
+        n = 0;
+        for (Map.Entry<LocalDate, CategoryBreakdown> day : days.entrySet()) {
+            CategoryBreakdown b = day.getValue();
+            for (Category c : Category.values()) {
+                if (b.isEmpty(c)) continue;
+                q.setParameter("date" + n, day.getKey())
+                        .setParameter("category" + n, c.name())
+                        .setParameter("unit" + n, c.getUnit().name())
+                        .setParameter("quantity" + n, b.quantity(c))
+                        .setParameter("points" + n, b.points(c));
+                n++;
+            }
+        }
+        q.executeUpdate();
+    }
+}
@@ -0,0 +1,16 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.dto.ExportRow;
+
+import java.util.function.Consumer;
+
+public interface DailyEntryExportRepo {
+
+    /**
+     * Feeds entries to {@code sink} one at a time from a server-side cursor, {@code fetchSize} rows
+     * per round trip, ordered by user and date across both live entries and the months compacted
+     * into daily_entry_archive. A null {@code userId} exports every user.
+     * Must run inside a transaction; Postgres only streams with autocommit off.
+     */
+    void forEachRow(Long userId, int fetchSize, Consumer<ExportRow> sink);
+}
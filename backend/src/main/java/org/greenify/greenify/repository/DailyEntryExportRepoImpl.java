@@ -0,0 +1,56 @@
+package org.greenify.greenify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.greenify.greenify.dto.ExportRow;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Scalar rows only: nothing is attached to the persistence context, so memory stays flat however long the cursor runs.
+class DailyEntryExportRepoImpl implements DailyEntryExportRepo {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRow(Long userId, int fetchSize, Consumer<ExportRow> sink) {
+        String where = userId == null ? "" : "where user_id = :userId";
+        // Archived and live months never overlap, so one sort over both gives (user_id, date) order.
+        String sql = """
+                select user_id, date, miles_driven, trash_count, recycle_count,
+                       reusable_bag, reusable_bottle, points_total
+                from daily_entry_archived
+                %1$s
+                union all
+                select user_id, date, miles_driven, trash_count, recycle_count,
+                       reusable_bag, reusable_bottle, points_total
+                from daily_entry
+                %1$s
+                order by user_id, date
+                """.formatted(where);
+
+        Query q = em.createNativeQuery(sql).setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        if (userId != null) q.setParameter("userId", userId);
+        NativeQuery<Object[]> nq = q.unwrap(NativeQuery.class)
+                .addScalar("user_id", Long.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("miles_driven", Integer.class)
+                .addScalar("trash_count", Integer.class)
+                .addScalar("recycle_count", Integer.class)
+                .addScalar("reusable_bag", Boolean.class)
+                .addScalar("reusable_bottle", Boolean.class)
+                .addScalar("points_total", Integer.class);
+
+        try (Stream<Object[]> rows = nq.getResultStream()) {
+            rows.forEach(r -> sink.accept(new ExportRow((Long) r[0], (LocalDate) r[1],
+                    (Integer) r[2], (Integer) r[3], (Integer) r[4],
+                    (Boolean) r[5], (Boolean) r[6], (Integer) r[7])));
+        }
+    }
+}
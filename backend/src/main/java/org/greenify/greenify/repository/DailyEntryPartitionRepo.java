@@ -0,0 +1,41 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.dto.DailyEntryRow;
+import org.greenify.greenify.dto.UserScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Monthly partitions of daily_entry. Months are identified by their first day. */
+public interface DailyEntryPartitionRepo {
+
+    List<LocalDate> findPartitionMonths();
+
+    /** Months that have rows in the default partition, i.e. no partition of their own yet. */
+    List<LocalDate> findUnpartitionedMonths();
+
+    /**
+     * Adds the month's partition, moving any of its rows out of the default partition first.
+     * Returns false, doing nothing, when another instance is changing partitions.
+     */
+    @Transactional
+    boolean createPartition(LocalDate month);
+
+    /**
+     * Refreshes the month's MONTH rollups, compacts its entries into daily_entry_archive and drops
+     * the partition, all in one transaction. Returns false, doing nothing, when another instance is
+     * changing partitions.
+     */
+    @Transactional
+    boolean archivePartition(LocalDate month);
+
+    List<UserScore> sumArchivedPointsByUser();
+
+    /** Like {@code findRowsInRange}, but also returns days already compacted into daily_entry_archive. */
+    Slice<DailyEntryRow> findRowsInRangeWithArchive(Long userId, LocalDate from, LocalDate to, Pageable pageable);
+
+    List<DailyEntryRow> findArchivedRows(Long userId);
+}
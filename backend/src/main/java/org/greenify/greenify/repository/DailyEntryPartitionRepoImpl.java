@@ -0,0 +1,186 @@
+package org.greenify.greenify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.greenify.greenify.dto.DailyEntryRow;
+import org.greenify.greenify.dto.UserScore;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// DDL cannot take bind parameters; partition names and bounds are built from LocalDate only.
+class DailyEntryPartitionRepoImpl implements DailyEntryPartitionRepo {
+
+    private static final String PREFIX = "daily_entry_";
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'y'uuuu'm'MM");
+    // Serializes partition changes across instances; released when the transaction ends.
+    private static final String LOCK = "select pg_try_advisory_xact_lock(hashtext('daily_entry_partitions'))";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<LocalDate> findPartitionMonths() {
+        List<String> names = em.createNativeQuery("""
+                        select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid
+                        where i.inhparent = 'daily_entry'::regclass and c.relname ~ '^daily_entry_y[0-9]{4}m[0-9]{2}$'
+                        """)
+                .getResultList();
+        return names.stream()
+                .map(n -> YearMonth.parse(n.substring(PREFIX.length()), NAME).atDay(1))
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<LocalDate> findUnpartitionedMonths() {
+        return em.createNativeQuery("""
+                        select distinct cast(date_trunc('month', date) as date) as month from daily_entry_default
+                        order by month
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("month", LocalDate.class)
+                .getResultList();
+    }
+
+    @Override
+    public boolean createPartition(LocalDate month) {
+        if (!locked()) return false;
+        String table = partitionName(month);
+        LocalDate next = month.plusMonths(1);
+        em.createNativeQuery("create table %s (like daily_entry including defaults)".formatted(table))
+                .executeUpdate();
+        em.createNativeQuery("""
+                        with moved as (
+                            delete from daily_entry_default where date >= '%2$s' and date < '%3$s' returning *)
+                        insert into %1$s select * from moved
+                        """.formatted(table, month, next))
+                .executeUpdate();
+        em.createNativeQuery("alter table daily_entry attach partition %s for values from ('%s') to ('%s')"
+                        .formatted(table, month, next))
+                .executeUpdate();
+        return true;
+    }
+
+    @Override
+    public boolean archivePartition(LocalDate month) {
+        if (!locked()) return false;
+        String table = partitionName(month);
+        em.createNativeQuery("""
+                        insert into entry_rollup (user_id, period, period_start, points_total, miles_driven, trash_count,
+                                                  recycle_count, reusable_bag_days, reusable_bottle_days, entry_days)
+                        select user_id, 'MONTH', date '%2$s',
+                               sum(points_total), sum(miles_driven), sum(trash_count), sum(recycle_count),
+                               count(*) filter (where reusable_bag),
+                               count(*) filter (where reusable_bottle),
+                               count(*)
+                        from %1$s
+                        group by user_id
+                        on conflict (user_id, period, period_start) do update set
+                            points_total = excluded.points_total,
+                            miles_driven = excluded.miles_driven,
+                            trash_count = excluded.trash_count,
+                            recycle_count = excluded.recycle_count,
+                            reusable_bag_days = excluded.reusable_bag_days,
+                            reusable_bottle_days = excluded.reusable_bottle_days,
+                            entry_days = excluded.entry_days
+                        """.formatted(table, month))
+                .executeUpdate();
+        em.createNativeQuery("""
+                        insert into daily_entry_archive (user_id, month, days, miles_driven, trash_count, recycle_count,
+                                                         reusable_bag, reusable_bottle, points_total)
+                        select user_id, date '%2$s',
+                               array_agg(cast(extract(day from date) as smallint) order by date),
+                               array_agg(miles_driven order by date),
+                               array_agg(trash_count order by date),
+                               array_agg(recycle_count order by date),
+                               array_agg(reusable_bag order by date),
+                               array_agg(reusable_bottle order by date),
+                               array_agg(points_total order by date)
+                        from %1$s
+                        group by user_id
+                        """.formatted(table, month))
+                .executeUpdate();
+        em.createNativeQuery("alter table daily_entry detach partition " + table).executeUpdate();
+        em.createNativeQuery("drop table " + table).executeUpdate();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserScore> sumArchivedPointsByUser() {
+        List<Object[]> rows = em.createNativeQuery("""
+                        select a.user_id, sum(p) as score
+                        from daily_entry_archive a cross join lateral unnest(a.points_total) p
+                        group by a.user_id
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("user_id", Long.class)
+                .addScalar("score", Long.class)
+                .getResultList();
+        return rows.stream().map(r -> new UserScore((Long) r[0], (Long) r[1])).toList();
+    }
+
+    @Override
+    public Slice<DailyEntryRow> findRowsInRangeWithArchive(Long userId, LocalDate from, LocalDate to, Pageable pageable) {
+        Query q = em.createNativeQuery("""
+                        select date, miles_driven, trash_count, recycle_count, reusable_bag, reusable_bottle, points_total
+                        from daily_entry where user_id = :userId and date between :from and :to
+                        union all
+                        select date, miles_driven, trash_count, recycle_count, reusable_bag, reusable_bottle, points_total
+                        from daily_entry_archived where user_id = :userId and date between :from and :to
+                        order by date
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1);
+        List<DailyEntryRow> rows = rows(q);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<DailyEntryRow> findArchivedRows(Long userId) {
+        return rows(em.createNativeQuery("""
+                        select date, miles_driven, trash_count, recycle_count, reusable_bag, reusable_bottle, points_total
+                        from daily_entry_archived where user_id = :userId
+                        """)
+                .setParameter("userId", userId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DailyEntryRow> rows(Query q) {
+        List<Object[]> rows = q.unwrap(NativeQuery.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("miles_driven", Integer.class)
+                .addScalar("trash_count", Integer.class)
+                .addScalar("recycle_count", Integer.class)
+                .addScalar("reusable_bag", Boolean.class)
+                .addScalar("reusable_bottle", Boolean.class)
+                .addScalar("points_total", Integer.class)
+                .getResultList();
+        return rows.stream()
+                .map(r -> new DailyEntryRow((LocalDate) r[0], (Integer) r[1], (Integer) r[2], (Integer) r[3],
+                        (Boolean) r[4], (Boolean) r[5], (Integer) r[6]))
+                .toList();
+    }
+
+    private boolean locked() {
+        return (Boolean) em.createNativeQuery(LOCK).getSingleResult();
+    }
+
+    static String partitionName(LocalDate month) {
+        return PREFIX + month.format(NAME);
+    }
+}
@@ -1,11 +1,82 @@
 package org.greenify.greenify.repository;
 
+import org.greenify.greenify.dto.DailyEntryRow;
+import org.greenify.greenify.dto.RescoreRow;
+import org.greenify.greenify.dto.UserScore;
 import org.greenify.greenify.model.DailyEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface DailyEntryRepo extends JpaRepository<DailyEntry, Long> {
+public interface DailyEntryRepo extends JpaRepository<DailyEntry, Long>, DailyEntryUpsertRepo,
+        DailyEntryRescoreRepo, DailyEntryExportRepo, DailyEntryPartitionRepo {
     Optional<DailyEntry> findByUser_IdAndDate(Long userId, LocalDate date);
-}
\ No newline at end of file
+
+    @Query("""
+            select new org.greenify.greenify.dto.DailyEntryRow(
+                e.date, e.milesDriven, e.trashCount, e.recycleCount,
+                e.reusableBag, e.reusableBottle, e.pointsTotal)
+            from DailyEntry e
+            where e.user.id = :userId and e.date between :from and :to
+            order by e.date
+            """)
+    Slice<DailyEntryRow> findRowsInRange(@Param("userId") Long userId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to,
+                                         Pageable pageable);
+
+    @Query("""
+            select new org.greenify.greenify.dto.DailyEntryRow(
+                e.date, e.milesDriven, e.trashCount, e.recycleCount,
+                e.reusableBag, e.reusableBottle, e.pointsTotal)
+            from DailyEntry e
+            where e.user.id = :userId
+            """)
+    List<DailyEntryRow> findAllRows(@Param("userId") Long userId);
+
+    @Query("""
+            select new org.greenify.greenify.dto.DailyEntryRow(
+                e.date, e.milesDriven, e.trashCount, e.recycleCount,
+                e.reusableBag, e.reusableBottle, e.pointsTotal)
+            from DailyEntry e
+            where e.user.id = :userId and e.date in :dates
+            """)
+    List<DailyEntryRow> findRowsForDates(@Param("userId") Long userId, @Param("dates") Collection<LocalDate> dates);
+
+    @Query("""
+            select new org.greenify.greenify.dto.UserScore(e.user.id, sum(e.pointsTotal))
+            from DailyEntry e
+            group by e.user.id
+            """)
+    List<UserScore> sumPointsByUser();
+
+    @Query("""
+            select new org.greenify.greenify.dto.UserScore(e.user.id, sum(e.pointsTotal))
+            from DailyEntry e
+            where e.date between :from and :to
+            group by e.user.id
+            """)
+    List<UserScore> sumPointsByUserBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Keyset page of entries not yet scored with :version, restricted to one user partition.
+    @Query("""
+            select new org.greenify.greenify.dto.RescoreRow(
+                e.id, e.version, e.milesDriven, e.trashCount, e.recycleCount,
+                e.reusableBag, e.reusableBottle)
+            from DailyEntry e
+            where e.scoringVersion < :version and mod(e.user.id, :parts) = :part and e.id > :afterId
+            order by e.id
+            """)
+    List<RescoreRow> findRescoreBatch(@Param("version") int version,
+                                      @Param("parts") long parts,
+                                      @Param("part") long part,
+                                      @Param("afterId") long afterId,
+                                      Pageable pageable);
+}
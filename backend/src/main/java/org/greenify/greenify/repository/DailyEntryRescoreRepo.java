@@ -0,0 +1,15 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.dto.RescoreRow;
+import org.greenify.greenify.dto.RescoredEntry;
+
+import java.util.List;
+
+public interface DailyEntryRescoreRepo {
+
+    /**
+     * Writes new points for each row (points[i] belongs to rows.get(i)) and stamps it with the rule
+     * version, in one statement. Rows whose version moved since they were read are skipped.
+     */
+    List<RescoredEntry> rescore(int scoringVersion, List<RescoreRow> rows, int[] points);
+}
@@ -0,0 +1,56 @@
+package org.greenify.greenify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.greenify.greenify.dto.RescoreRow;
+import org.greenify.greenify.dto.RescoredEntry;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.StringJoiner;
+
+// The version check keeps a concurrent upsert (already scored with the new rules) from being overwritten.
+class DailyEntryRescoreRepoImpl implements DailyEntryRescoreRepo {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<RescoredEntry> rescore(int scoringVersion, List<RescoreRow> rows, int[] points) {
+        if (rows.isEmpty()) return List.of();
+
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < rows.size(); i++) {
+            values.add("(:id" + i + ", :version" + i + ", :points" + i + ")");
+        }
+        String sql = """
+                update daily_entry d set
+                    previous_points = d.points_total,
+                    points_total = v.points,
+                    version = case when d.points_total = v.points then d.version else d.version + 1 end,
+                    scoring_version = :scoringVersion
+                from (values %s) as v(id, version, points)
+                where d.id = v.id and d.version = v.version
+                returning d.user_id, d.date, d.previous_points, d.points_total
+                """.formatted(values);
+
+        Query q = em.createNativeQuery(sql).setParameter("scoringVersion", scoringVersion);
+        for (int i = 0; i < rows.size(); i++) {
+            q.setParameter("id" + i, rows.get(i).id())
+                    .setParameter("version" + i, rows.get(i).version())
+                    .setParameter("points" + i, points[i]);
+        }
+        List<Object[]> result = q.unwrap(NativeQuery.class)
+                .addScalar("user_id", Long.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("previous_points", Integer.class)
+                .addScalar("points_total", Integer.class)
+                .getResultList();
+        return result.stream()
+                .map(r -> new RescoredEntry((Long) r[0], (LocalDate) r[1], (Integer) r[2], (Integer) r[3]))
+                .toList();
+    }
+}
@@ -0,0 +1,15 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.dto.UpsertedEntry;
+import org.greenify.greenify.model.DailyEntry;
+
+import java.util.List;
+
+public interface DailyEntryUpsertRepo {
+
+    /**
+     * Inserts or overwrites one row per entry date in a single statement. Dates must be
+     * distinct. The result carries the points each row held before this write.
+     */
+    List<UpsertedEntry> upsert(Long userId, List<DailyEntry> entries);
+}
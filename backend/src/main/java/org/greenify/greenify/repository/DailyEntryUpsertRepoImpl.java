@@ -0,0 +1,72 @@
+package org.greenify.greenify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.greenify.greenify.dto.UpsertedEntry;
+import org.greenify.greenify.model.DailyEntry;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Native INSERT ... ON CONFLICT (user_id, date) DO UPDATE. Concurrent writers for the same day
+ * both succeed without a read-then-write race, and the conflicting row's points are copied into
+ * previous_points under the row lock, so callers get the exact value they replaced.
+ */
+class DailyEntryUpsertRepoImpl implements DailyEntryUpsertRepo {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UpsertedEntry> upsert(Long userId, List<DailyEntry> entries) {
+        if (entries.isEmpty()) return List.of();
+
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < entries.size(); i++) {
+            values.add("(nextval('daily_entry_seq'), :userId, :date" + i + ", :miles" + i + ", :trash" + i
+                    + ", :recycle" + i + ", :bag" + i + ", :bottle" + i + ", :points" + i + ", 0, 0, :scoring" + i + ")");
+        }
+        String sql = """
+                insert into daily_entry (id, user_id, date, miles_driven, trash_count, recycle_count,
+                                         reusable_bag, reusable_bottle, points_total, previous_points, version,
+                                         scoring_version)
+                values %s
+                on conflict (user_id, date) do update set
+                    previous_points = daily_entry.points_total,
+                    version = daily_entry.version + 1,
+                    miles_driven = excluded.miles_driven,
+                    trash_count = excluded.trash_count,
+                    recycle_count = excluded.recycle_count,
+                    reusable_bag = excluded.reusable_bag,
+                    reusable_bottle = excluded.reusable_bottle,
+                    points_total = excluded.points_total,
+                    scoring_version = excluded.scoring_version
+                returning date, previous_points
+                """.formatted(values);
+
+        Query q = em.createNativeQuery(sql).setParameter("userId", userId);
+        for (int i = 0; i < entries.size(); i++) {
+            DailyEntry e = entries.get(i);
+            q.setParameter("date" + i, e.getDate())
+                    .setParameter("miles" + i, e.getMilesDriven())
+                    .setParameter("trash" + i, e.getTrashCount())
+                    .setParameter("recycle" + i, e.getRecycleCount())
+                    .setParameter("bag" + i, e.isReusableBag())
+                    .setParameter("bottle" + i, e.isReusableBottle())
+                    .setParameter("points" + i, e.getPointsTotal())
+                    .setParameter("scoring" + i, e.getScoringVersion());
+        }
+        List<Object[]> rows = q.unwrap(NativeQuery.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("previous_points", Integer.class)
+                .getResultList();
+        return rows.stream()
+                .map(r -> new UpsertedEntry((LocalDate) r[0], (Integer) r[1]))
+                .toList();
+    }
+}
@@ -0,0 +1,29 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.model.EntryChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface EntryChangeRepo extends JpaRepository<EntryChange, Long> {
+    List<EntryChange> findByUserIdAndParkedAtIsNullOrderById(Long userId);
+    boolean existsByUserId(Long userId);
+    boolean existsByUserIdAndParkedAtIsNull(Long userId);
+    boolean existsByDateBetween(LocalDate from, LocalDate to);
+
+    @Query("""
+            select distinct c.userId from EntryChange c
+            where c.createdAt < :before and c.parkedAt is null
+              and (c.retryAfter is null or c.retryAfter < :now)
+            """)
+    List<Long> findUsersWithChangesBefore(@Param("before") Instant before, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from EntryChange c where c.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,95 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.model.EntryRollup;
+import org.greenify.greenify.model.EntryRollupId;
+import org.greenify.greenify.model.enums.RollupPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface EntryRollupRepo extends JpaRepository<EntryRollup, EntryRollupId> {
+
+    @Query("""
+            select r from EntryRollup r
+            where r.id.userId = :userId and r.id.period = :period
+              and r.id.periodStart between :from and :to
+            order by r.id.periodStart
+            """)
+    List<EntryRollup> findRange(@Param("userId") Long userId,
+                                @Param("period") RollupPeriod period,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to);
+
+    // Rewrites one bucket from daily_entry plus any archived months it overlaps (a week can
+    // straddle the archive cutoff). Idempotent, so repeated or coalesced changes are harmless.
+    @Modifying
+    @Query(value = """
+            insert into entry_rollup (user_id, period, period_start, points_total, miles_driven, trash_count,
+                                      recycle_count, reusable_bag_days, reusable_bottle_days, entry_days)
+            select :userId, :period, :periodStart,
+                   coalesce(sum(points_total), 0), coalesce(sum(miles_driven), 0),
+                   coalesce(sum(trash_count), 0), coalesce(sum(recycle_count), 0),
+                   count(*) filter (where reusable_bag),
+                   count(*) filter (where reusable_bottle),
+                   count(*)
+            from (
+                select points_total, miles_driven, trash_count, recycle_count, reusable_bag, reusable_bottle
+                from daily_entry
+                where user_id = :userId and date between :periodStart and :periodEnd
+                union all
+                select points_total, miles_driven, trash_count, recycle_count, reusable_bag, reusable_bottle
+                from daily_entry_archived
+                where user_id = :userId and date between :periodStart and :periodEnd
+            ) e
+            on conflict (user_id, period, period_start) do update set
+                points_total = excluded.points_total,
+                miles_driven = excluded.miles_driven,
+                trash_count = excluded.trash_count,
+                recycle_count = excluded.recycle_count,
+                reusable_bag_days = excluded.reusable_bag_days,
+                reusable_bottle_days = excluded.reusable_bottle_days,
+                entry_days = excluded.entry_days
+            """, nativeQuery = true)
+    int recompute(@Param("userId") Long userId,
+                  @Param("period") String period,
+                  @Param("periodStart") LocalDate periodStart,
+                  @Param("periodEnd") LocalDate periodEnd);
+
+    // One-off backfill from daily_entry; rows that already exist are left alone.
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into entry_rollup (user_id, period, period_start, points_total, miles_driven, trash_count,
+                                      recycle_count, reusable_bag_days, reusable_bottle_days, entry_days)
+            select user_id, 'WEEK', cast(date_trunc('week', date) as date),
+                   sum(points_total), sum(miles_driven), sum(trash_count), sum(recycle_count),
+                   sum(case when reusable_bag then 1 else 0 end),
+                   sum(case when reusable_bottle then 1 else 0 end),
+                   count(*)
+            from daily_entry
+            group by user_id, cast(date_trunc('week', date) as date)
+            on conflict (user_id, period, period_start) do nothing
+            """, nativeQuery = true)
+    int backfillWeeks();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into entry_rollup (user_id, period, period_start, points_total, miles_driven, trash_count,
+                                      recycle_count, reusable_bag_days, reusable_bottle_days, entry_days)
+            select user_id, 'MONTH', cast(date_trunc('month', date) as date),
+                   sum(points_total), sum(miles_driven), sum(trash_count), sum(recycle_count),
+                   sum(case when reusable_bag then 1 else 0 end),
+                   sum(case when reusable_bottle then 1 else 0 end),
+                   count(*)
+            from daily_entry
+            group by user_id, cast(date_trunc('month', date) as date)
+            on conflict (user_id, period, period_start) do nothing
+            """, nativeQuery = true)
+    int backfillMonths();
+}
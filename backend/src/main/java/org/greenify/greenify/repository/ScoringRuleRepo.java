@@ -0,0 +1,40 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.model.ScoringRule;
+import org.greenify.greenify.model.ScoringRuleId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ScoringRuleRepo extends JpaRepository<ScoringRule, ScoringRuleId>, ScoringRuleWriteRepo {
+
+    @Query("select max(r.id.version) from ScoringRule r")
+    Integer findLatestVersion();
+
+    List<ScoringRule> findById_Version(int version);
+
+    /**
+     * Claims the re-score of {@code version} unless it has finished or another instance claimed it
+     * after {@code staleBefore}. Returns 0 when not claimed; concurrent claimers block on the row
+     * locks and then see the fresh claim.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ScoringRule r set r.rescoreClaimedAt = :now
+            where r.id.version = :version and r.rescoredAt is null
+              and (r.rescoreClaimedAt is null or r.rescoreClaimedAt < :staleBefore)
+            """)
+    int claimRescore(@Param("version") int version, @Param("now") Instant now,
+                     @Param("staleBefore") Instant staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update ScoringRule r set r.rescoredAt = :now where r.id.version = :version")
+    int markRescored(@Param("version") int version, @Param("now") Instant now);
+}
@@ -0,0 +1,17 @@
+package org.greenify.greenify.repository;
+
+import org.greenify.greenify.model.enums.Category;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+public interface ScoringRuleWriteRepo {
+
+    /**
+     * Stores {@code perUnit} as the version after the highest one in the database, claimed for
+     * re-scoring by the caller, and returns that version. Rows are inserted, never merged, so an
+     * instance publishing the same version concurrently fails on the primary key.
+     */
+    @Transactional
+    int insertNextVersion(Map<Category, Double> perUnit);
+}
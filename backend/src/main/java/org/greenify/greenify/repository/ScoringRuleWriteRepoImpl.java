@@ -0,0 +1,31 @@
+package org.greenify.greenify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.greenify.greenify.model.ScoringRule;
+import org.greenify.greenify.model.ScoringRuleId;
+import org.greenify.greenify.model.enums.Category;
+
+import java.time.Instant;
+import java.util.Map;
+
+class ScoringRuleWriteRepoImpl implements ScoringRuleWriteRepo {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int insertNextVersion(Map<Category, Double> perUnit) {
+        Integer latest = em.createQuery("select max(r.id.version) from ScoringRule r", Integer.class)
+                .getSingleResult();
+        int version = latest == null ? 1 : latest + 1;
+        Instant now = Instant.now();
+        for (Map.Entry<Category, Double> e : perUnit.entrySet()) {
+            ScoringRule rule = new ScoringRule(new ScoringRuleId(version, e.getKey()), e.getValue());
+            rule.setRescoreClaimedAt(now);
+            em.persist(rule);
+        }
+        em.flush();
+        return version;
+    }
+}
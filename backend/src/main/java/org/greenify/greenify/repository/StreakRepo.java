@@ -1,6 +1,23 @@
 package org.greenify.greenify.repository;
 
+import org.greenify.greenify.dto.UserScore;
 import org.greenify.greenify.model.Streak;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface StreakRepo extends JpaRepository<Streak, Long> {}
+import java.util.List;
+import java.util.Optional;
+
+public interface StreakRepo extends JpaRepository<Streak, Long> {
+
+    @Query("select new org.greenify.greenify.dto.UserScore(s.userId, cast(s.highestStreak as Long)) from Streak s where s.highestStreak > 0")
+    List<UserScore> findHighestStreaks();
+
+    // Bumps the version at commit even if nothing changed, so overlapping writers always conflict.
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select s from Streak s where s.userId = :userId")
+    Optional<Streak> findForUpdate(@Param("userId") Long userId);
+}
@@ -0,0 +1,39 @@
+package org.greenify.greenify.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface UserPurgeRepo {
+
+    /** Per-user tables, in the order a purge empties them. */
+    enum PurgeTable {
+        ENTRY_CHANGE("entry_change"),
+        CATEGORY_ACTIVITY("category_activity"),
+        ENTRY_ROLLUP("entry_rollup"),
+        DAILY_ENTRY("daily_entry"),
+        DAILY_ENTRY_ARCHIVE("daily_entry_archive"),
+        STREAK("streak");
+
+        private final String table;
+
+        PurgeTable(String table) {
+            this.table = table;
+        }
+
+        public String table() {
+            return table;
+        }
+    }
+
+    /**
+     * Deletes up to {@code limit} of the user's rows from {@code table} in its own transaction,
+     * so locks are held for one chunk at a time. Returns the number of rows deleted.
+     */
+    @Transactional
+    int deleteChunk(PurgeTable table, Long userId, int limit);
+
+    /** Deletes the users row if the account was disabled before {@code disabledBefore}. */
+    @Transactional
+    int deleteDisabledUser(Long userId, Instant disabledBefore);
+}
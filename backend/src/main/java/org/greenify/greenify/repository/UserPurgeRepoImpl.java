@@ -0,0 +1,36 @@
+package org.greenify.greenify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+
+// ctid picks the chunk without needing each table's key, and deleting by it takes row locks only on that chunk.
+// ctids repeat across daily_entry's partitions, hence the user_id check on the delete itself.
+class UserPurgeRepoImpl implements UserPurgeRepo {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int deleteChunk(PurgeTable table, Long userId, int limit) {
+        String sql = """
+                delete from %1$s where user_id = :userId and ctid = any(array(
+                    select ctid from %1$s where user_id = :userId limit :limit))
+                """.formatted(table.table());
+        return em.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteDisabledUser(Long userId, Instant disabledBefore) {
+        return em.createNativeQuery("""
+                        delete from users where user_id = :userId and disabled and disabled_at < :before
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("before", disabledBefore)
+                .executeUpdate();
+    }
+}
@@ -1,14 +1,47 @@
 package org.greenify.greenify.repository;
 
+import org.greenify.greenify.dto.UserHandle;
+import org.greenify.greenify.dto.UsernameView;
 import org.greenify.greenify.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface UserRepo extends JpaRepository<User, Long> {
+public interface UserRepo extends JpaRepository<User, Long>, UserPurgeRepo {
 
     User findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    boolean existsByIdAndAdminTrue(Long id);
+    boolean existsByIdAndDisabledFalse(Long id);
     void deleteById(Long id);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Modifying
+    @Query("update User u set u.disabled = true, u.disabledAt = :now where u.id = :id and u.disabled = false")
+    int disable(@Param("id") Long id, @Param("now") Instant now);
+
+    @Query("select u.id from User u where u.disabled = true")
+    List<Long> findDisabledIds();
+
+    @Query("select new org.greenify.greenify.dto.UserHandle(u.id, u.username, u.email) from User u where u.id = :id")
+    Optional<UserHandle> findHandleById(@Param("id") Long id);
+
+    @Query("select new org.greenify.greenify.dto.UserHandle(u.id, u.username, u.email) from User u where u.id > :afterId order by u.id")
+    List<UserHandle> findHandlesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select new org.greenify.greenify.dto.UsernameView(u.id, u.username) from User u where u.id in :ids")
+    List<UsernameView> findUsernames(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,101 @@
+package org.greenify.greenify.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.greenify.greenify.event.UserDeletedEvent;
+import org.greenify.greenify.repository.UserPurgeRepo.PurgeTable;
+import org.greenify.greenify.repository.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Removes a deleted account's data in the background. Each table is emptied in small chunks, each
+ * its own short transaction, with a pause in between so a user with years of history never holds
+ * long locks on daily_entry. The users row goes last, and only once every token issued before
+ * the deletion has expired; until then it keeps the account disabled for JWTFilter.
+ * The sweep retries anything a failure or restart left behind.
+ */
+@Component
+public class AccountPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountPurgeJob.class);
+
+    private final UserRepo userRepo;
+    private final DisabledUsers disabledUsers;
+    private final MeterRegistry registry;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long userRowDelayMs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("account-purge").daemon(true).factory());
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public AccountPurgeJob(UserRepo userRepo, DisabledUsers disabledUsers, MeterRegistry registry,
+                           @Value("${user.purge.chunk-size:1000}") int chunkSize,
+                           @Value("${user.purge.pause-ms:50}") long pauseMs,
+                           @Value("${user.purge.user-row-delay-ms:86400000}") long userRowDelayMs) {
+        this.userRepo = userRepo;
+        this.disabledUsers = disabledUsers;
+        this.registry = registry;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.userRowDelayMs = userRowDelayMs;
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent e) {
+        enqueue(e.userId());
+    }
+
+    @Scheduled(initialDelayString = "${user.purge.sweep-ms:60000}", fixedDelayString = "${user.purge.sweep-ms:60000}")
+    public void sweep() {
+        disabledUsers.refresh();
+        userRepo.findDisabledIds().forEach(this::enqueue);
+    }
+
+    /** Deletes the user's rows chunk by chunk; returns whether the users row itself is gone too. */
+    boolean purge(Long userId) throws InterruptedException {
+        for (PurgeTable t : PurgeTable.values()) {
+            int n;
+            do {
+                n = userRepo.deleteChunk(t, userId, chunkSize);
+                registry.counter("greenify.purge.rows", "table", t.table()).increment(n);
+                if (n > 0 && pauseMs > 0) Thread.sleep(pauseMs);
+            } while (n >= chunkSize);
+        }
+        Instant cutoff = Instant.now().minusMillis(userRowDelayMs);
+        if (userRepo.deleteDisabledUser(userId, cutoff) == 0) return false;
+        disabledUsers.forget(userId);
+        return true;
+    }
+
+    private void enqueue(Long userId) {
+        if (queued.add(userId)) executor.execute(() -> purgeQuietly(userId));
+    }
+
+    private void purgeQuietly(Long userId) {
+        queued.remove(userId);
+        try {
+            if (purge(userId)) log.info("Purged account {}", userId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Purge of account {} failed; the sweep will retry", userId, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.model.enums.Category;
+
+/**
+ * One day's activity per category as two primitive arrays indexed by {@link Category#ordinal()}.
+ * Built by {@link ScoringRules}, so the stored category points always add up to the entry's
+ * score before the zero floor.
+ */
+public final class CategoryBreakdown {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    public static final CategoryBreakdown EMPTY = new CategoryBreakdown();
+
+    private final int[] quantity = new int[CATEGORIES.length];
+    private final int[] points = new int[CATEGORIES.length];
+
+    CategoryBreakdown() {
+    }
+
+    void set(Category c, int q, int p) {
+        quantity[c.ordinal()] = q;
+        points[c.ordinal()] = p;
+    }
+
+    public int quantity(Category c) {
+        return quantity[c.ordinal()];
+    }
+
+    public int points(Category c) {
+        return points[c.ordinal()];
+    }
+
+    public boolean isEmpty(Category c) {
+        return quantity[c.ordinal()] == 0 && points[c.ordinal()] == 0;
+    }
+
+    public int totalPoints() {
+        int sum = 0;
+        for (int p : points) sum += p;
+        return sum;
+    }
+}
@@ -0,0 +1,28 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.CategoryTotalView;
+import org.greenify.greenify.repository.CategoryActivityRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class CategoryService {
+
+    private final CategoryActivityRepo activityRepo;
+
+    // Existing entries are backfilled once by the V4 migration.
+    public CategoryService(CategoryActivityRepo activityRepo) {
+        this.activityRepo = activityRepo;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategoryTotalView> totals(Long userId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        return activityRepo.totalsByCategory(userId, from, to);
+    }
+}
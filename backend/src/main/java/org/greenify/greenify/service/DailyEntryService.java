@@ -1,39 +1,66 @@
 // org.greenify.greenify.service.DailyEntryService
 package org.greenify.greenify.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.greenify.greenify.dto.DailyEntryPageDTO;
+import org.greenify.greenify.dto.DailyEntryRow;
 import org.greenify.greenify.dto.DailyEntryUpsertDTO;
 import org.greenify.greenify.dto.DailyEntryViewDTO;
+import org.greenify.greenify.dto.Stamped;
+import org.greenify.greenify.dto.UpsertedEntry;
+import org.greenify.greenify.event.DailyEntryChangedEvent;
 import org.greenify.greenify.model.DailyEntry;
-import org.greenify.greenify.model.Streak;
-import org.greenify.greenify.model.User;
+import org.greenify.greenify.model.EntryChange;
 import org.greenify.greenify.repository.DailyEntryRepo;
-import org.greenify.greenify.repository.StreakRepo;
+import org.greenify.greenify.repository.EntryChangeRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class DailyEntryService {
 
-    private final DailyEntryRepo dailyRepo;
-    private final StreakRepo streakRepo;
-    private final UserService userService;
+    static final int MAX_BATCH_SIZE = 366;
+    static final int MAX_PAGE_SIZE = 366;
 
-    public DailyEntryService(DailyEntryRepo dailyRepo, StreakRepo streakRepo, UserService userService) {
+    private final DailyEntryRepo dailyRepo;
+    private final EntryChangeRepo changeRepo;
+    private final ApplicationEventPublisher events;
+    private final ScoringService scoring;
+    private final EntryArchive archive;
+    private final TransactionTemplate tx;
+    private final Timer upsertTimer;
+    private final Timer batchTimer;
+    private final DistributionSummary rowsTouched;
+
+    public DailyEntryService(DailyEntryRepo dailyRepo, EntryChangeRepo changeRepo, ApplicationEventPublisher events,
+                             ScoringService scoring, EntryArchive archive, PlatformTransactionManager txManager,
+                             MeterRegistry registry) {
         this.dailyRepo = dailyRepo;
-        this.streakRepo = streakRepo;
-        this.userService = userService;
-    }
-
-    private int calcPoints(DailyEntry e) {
-        int pts = 0;
-        pts += e.getRecycleCount() * 2;
-        pts -= e.getTrashCount();
-        pts -= Math.round(e.getMilesDriven() * 0.2f);
-        if (e.isReusableBag()) pts += 3;
-        if (e.isReusableBottle()) pts += 3;
-        return Math.max(0, pts);
+        this.changeRepo = changeRepo;
+        this.events = events;
+        this.scoring = scoring;
+        this.archive = archive;
+        this.tx = new TransactionTemplate(txManager);
+        this.upsertTimer = Timer.builder("greenify.entry.upsert").tag("kind", "single").register(registry);
+        this.batchTimer = Timer.builder("greenify.entry.upsert").tag("kind", "batch").register(registry);
+        this.rowsTouched = DistributionSummary.builder("greenify.entry.upsert.rows")
+                .description("daily_entry rows written per upsert call")
+                .register(registry);
     }
 
     private DailyEntryViewDTO toView(DailyEntry e) {
@@ -48,64 +75,128 @@ public class DailyEntryService {
         return new DailyEntryViewDTO(e.getDate().toString(), e.getPointsTotal(), raw);
     }
 
-    @Transactional
+    private DailyEntryViewDTO toView(DailyEntryRow r) {
+        String date = r.date().toString();
+        DailyEntryUpsertDTO raw = new DailyEntryUpsertDTO(
+                date,
+                r.milesDriven(),
+                r.trashCount(),
+                r.recycleCount(),
+                r.reusableBag(),
+                r.reusableBottle()
+        );
+        return new DailyEntryViewDTO(date, r.pointsTotal(), raw);
+    }
+
+    // Timed around the transaction (not inside a @Transactional proxy) so the commit is included.
     public DailyEntryViewDTO upsert(Long userId, DailyEntryUpsertDTO dto) {
-        LocalDate date = LocalDate.parse(dto.date());
-        User u = userService.getByUserId(userId);
+        Timer.Sample sample = Timer.start();
+        try {
+            return tx.execute(status -> doUpsert(userId, dto));
+        } finally {
+            sample.stop(upsertTimer);
+        }
+    }
+
+    private DailyEntryViewDTO doUpsert(Long userId, DailyEntryUpsertDTO dto) {
+        DailyEntry e = new DailyEntry();
+        e.setDate(LocalDate.parse(dto.date()));
+        apply(e, dto);
+        write(userId, List.of(e));
+        return toView(e);
+    }
+
+    public List<DailyEntryViewDTO> upsertBatch(Long userId, List<DailyEntryUpsertDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) return List.of();
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch may contain at most " + MAX_BATCH_SIZE + " entries");
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            return tx.execute(status -> doUpsertBatch(userId, dtos));
+        } finally {
+            sample.stop(batchTimer);
+        }
+    }
+
+    private List<DailyEntryViewDTO> doUpsertBatch(Long userId, List<DailyEntryUpsertDTO> dtos) {
+        // Later entries for the same date win, matching what sequential POSTs would have done.
+        Map<LocalDate, DailyEntryUpsertDTO> byDate = new LinkedHashMap<>();
+        for (DailyEntryUpsertDTO dto : dtos) {
+            byDate.put(LocalDate.parse(dto.date()), dto);
+        }
 
-        DailyEntry e = dailyRepo.findByUser_IdAndDate(userId, date).orElseGet(() -> {
-            DailyEntry ne = new DailyEntry();
-            ne.setUser(u);
-            ne.setDate(date);
-            return ne;
-        });
+        List<DailyEntry> entries = new ArrayList<>(byDate.size());
+        for (Map.Entry<LocalDate, DailyEntryUpsertDTO> in : byDate.entrySet()) {
+            DailyEntry e = new DailyEntry();
+            e.setDate(in.getKey());
+            apply(e, in.getValue());
+            entries.add(e);
+        }
+        write(userId, entries);
+        return entries.stream().map(this::toView).toList();
+    }
+
+    // One ON CONFLICT statement for the rows plus one batched insert for the change log.
+    // Streak and rollups are applied by EntryChangePipeline once this commits.
+    private void write(Long userId, List<DailyEntry> entries) {
+        LocalDate writableFrom = archive.writableFrom();
+        for (DailyEntry e : entries) {
+            if (e.getDate().isBefore(writableFrom)) {
+                throw new IllegalArgumentException("Entries before " + writableFrom + " are archived and can no longer be changed");
+            }
+        }
+        List<UpsertedEntry> written = dailyRepo.upsert(userId, entries);
+        changeRepo.saveAll(entries.stream().map(e -> new EntryChange(userId, e.getDate())).toList());
+
+        Map<LocalDate, Integer> points = entries.stream()
+                .collect(Collectors.toMap(DailyEntry::getDate, DailyEntry::getPointsTotal));
+        for (UpsertedEntry w : written) {
+            events.publishEvent(new DailyEntryChangedEvent(userId, w.date(), w.previousPoints(), points.get(w.date())));
+        }
+        rowsTouched.record(written.size());
+    }
 
+    private void apply(DailyEntry e, DailyEntryUpsertDTO dto) {
         e.setMilesDriven(dto.milesDriven());
         e.setTrashCount(dto.trashCount());
         e.setRecycleCount(dto.recycleCount());
         e.setReusableBag(dto.reusableBag());
         e.setReusableBottle(dto.reusableBottle());
-
-        e.setPointsTotal(calcPoints(e));
-        dailyRepo.save(e);
-
-        updateStreak(userId, date, e.getPointsTotal());
-
-        return toView(e);
+        ScoringRules rules = scoring.active();
+        e.setPointsTotal(rules.score(e));
+        e.setScoringVersion(rules.version());
     }
 
     @Transactional(readOnly = true)
-    public DailyEntryViewDTO getForDate(Long userId, LocalDate date) {
+    public Stamped<DailyEntryViewDTO> getForDate(Long userId, LocalDate date) {
         return dailyRepo.findByUser_IdAndDate(userId, date)
-                .map(this::toView)
+                .map(e -> new Stamped<>(toView(e), e.getId() + "." + e.getVersion()))
+                .or(() -> findArchived(userId, date))
                 .orElseGet(() -> {
                     DailyEntryUpsertDTO raw = new DailyEntryUpsertDTO(date.toString(), 0,0,0,false,false);
-                    return new DailyEntryViewDTO(date.toString(), 0, raw);
+                    return new Stamped<>(new DailyEntryViewDTO(date.toString(), 0, raw), "none");
                 });
     }
 
-    private void updateStreak(Long userId, LocalDate date, int points) {
-        int goal = 10;
-        Streak s = streakRepo.findById(userId).orElseGet(() -> {
-            Streak ns = new Streak();
-            ns.setUserId(userId);
-            ns.setUser(userService.getByUserId(userId));
-            return ns;
-        });
-
-        if (points >= goal) {
-            if (s.getLastQualifyingDate() != null && date.equals(s.getLastQualifyingDate().plusDays(1))) {
-                s.setCurrentStreak(s.getCurrentStreak() + 1);
-            } else if (s.getLastQualifyingDate() == null || !date.equals(s.getLastQualifyingDate())) {
-                s.setCurrentStreak(1);
-            }
-            s.setLastQualifyingDate(date);
-            if (s.getCurrentStreak() > s.getHighestStreak()) s.setHighestStreak(s.getCurrentStreak());
-        } else {
-            if (s.getLastQualifyingDate() == null || date.isAfter(s.getLastQualifyingDate())) {
-                s.setCurrentStreak(0);
-            }
+    // Archived days can no longer change, so one fixed version is enough for them.
+    private Optional<Stamped<DailyEntryViewDTO>> findArchived(Long userId, LocalDate date) {
+        if (!date.isBefore(archive.writableFrom())) return Optional.empty();
+        return dailyRepo.findRowsInRangeWithArchive(userId, date, date, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .map(r -> new Stamped<>(toView(r), "archived"));
+    }
+
+    @Transactional(readOnly = true)
+    public DailyEntryPageDTO getRange(Long userId, LocalDate from, LocalDate to, int page, int size) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
         }
-        streakRepo.save(s);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), pageSize);
+        Slice<DailyEntryRow> rows = from.isBefore(archive.writableFrom())
+                ? dailyRepo.findRowsInRangeWithArchive(userId, from, to, pageable)
+                : dailyRepo.findRowsInRange(userId, from, to, pageable);
+        return new DailyEntryPageDTO(rows.map(r -> toView(r)).getContent(), rows.getNumber(), rows.hasNext());
     }
 }
@@ -0,0 +1,83 @@
+package org.greenify.greenify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.greenify.greenify.event.UserDeletedEvent;
+import org.greenify.greenify.repository.UserRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of deleted accounts that still have a users row, checked by JWTFilter on every request so
+ * tokens issued before the deletion stop working at once. Users rows outlive the longest token
+ * lifetime (see AccountPurgeJob), so an id can be dropped once its row is gone.
+ * <p>
+ * Deletions handled by another instance only reach this set on the next refresh, so the filter also
+ * asks the database whether the account is still active, caching the answer for
+ * {@code user.active-check-ttl}; that bounds how long such a token keeps working here.
+ */
+@Service
+public class DisabledUsers {
+
+    private final UserRepo userRepo;
+    private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+    private final Cache<Long, Boolean> active;
+    private Set<Long> lastLoaded = Set.of();
+
+    public DisabledUsers(UserRepo userRepo,
+                         @Value("${user.active-check-ttl:5s}") Duration activeCheckTtl,
+                         @Value("${user.active-check-max-size:100000}") long activeCheckMaxSize) {
+        this.userRepo = userRepo;
+        this.active = Caffeine.newBuilder()
+                .maximumSize(activeCheckMaxSize)
+                .expireAfterWrite(activeCheckTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    public boolean contains(Long userId) {
+        return ids.contains(userId);
+    }
+
+    /** Whether tokens for the account must stop authenticating: it is disabled here, or in the database. */
+    public boolean isDisabled(Long userId) {
+        return ids.contains(userId) || !active.get(userId, userRepo::existsByIdAndDisabledFalse);
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent e) {
+        ids.add(e.userId());
+        active.invalidate(e.userId());
+    }
+
+    /** Called once the users row is gone and no token for the account can still be valid. */
+    public void forget(Long userId) {
+        ids.remove(userId);
+    }
+
+    /**
+     * Picks up deletions made on other instances. Only ids that were disabled at the last refresh and
+     * are gone now are dropped, so an account disabled while the query ran is never let back in.
+     */
+    public synchronized void refresh() {
+        List<Long> found = userRepo.findDisabledIds();
+        Set<Long> current = new HashSet<>(found);
+        ids.addAll(current);
+        for (Long id : lastLoaded) {
+            if (!current.contains(id)) ids.remove(id);
+        }
+        lastLoaded = current;
+    }
+}
@@ -0,0 +1,67 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.repository.DailyEntryRepo;
+import org.greenify.greenify.repository.EntryChangeRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps daily_entry's monthly partitions in shape: partitions exist ahead of time for upcoming
+ * months (and for any month that has landed in the default partition), and months older than
+ * the retention window are compacted into daily_entry_archive and dropped. Archived months are
+ * read-only: their rollups and archive rows no longer change, and re-scoring skips them.
+ */
+@Component
+public class EntryArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(EntryArchive.class);
+
+    private final DailyEntryRepo dailyRepo;
+    private final EntryChangeRepo changeRepo;
+    private final int premakeMonths;
+    private final int retentionMonths;
+
+    public EntryArchive(DailyEntryRepo dailyRepo, EntryChangeRepo changeRepo,
+                        @Value("${entry.partition.premake-months:3}") int premakeMonths,
+                        @Value("${entry.archive.retention-months:24}") int retentionMonths) {
+        this.dailyRepo = dailyRepo;
+        this.changeRepo = changeRepo;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /** The earliest date an entry may still be written for; everything before it is archived. */
+    public LocalDate writableFrom() {
+        return retentionMonths <= 0 ? LocalDate.MIN : LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+    }
+
+    @Scheduled(initialDelayString = "${entry.partition.initial-delay-ms:10000}",
+            fixedDelayString = "${entry.partition.maintenance-ms:3600000}")
+    public void maintain() {
+        List<LocalDate> existing = dailyRepo.findPartitionMonths();
+        TreeSet<LocalDate> wanted = new TreeSet<>(dailyRepo.findUnpartitionedMonths());
+        LocalDate current = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= premakeMonths; i++) wanted.add(current.plusMonths(i));
+        wanted.removeAll(existing);
+        for (LocalDate month : wanted) {
+            if (!dailyRepo.createPartition(month)) return;
+            log.info("Created daily_entry partition for {}", month);
+        }
+
+        LocalDate cutoff = writableFrom();
+        for (LocalDate month : dailyRepo.findPartitionMonths()) {
+            if (!month.isBefore(cutoff)) break;
+            // A change still waiting for the pipeline would recompute its rollups from rows about to go.
+            if (changeRepo.existsByDateBetween(month, month.plusMonths(1).minusDays(1))) continue;
+            if (!dailyRepo.archivePartition(month)) return;
+            log.info("Archived daily_entry partition for {}", month);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.greenify.greenify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.greenify.greenify.event.DailyEntryChangedEvent;
+import org.greenify.greenify.event.UserDeletedEvent;
+import org.greenify.greenify.repository.EntryChangeRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs streak and rollup updates off the request path. A committed entry write schedules its
+ * user once per coalescing window; all of that user's pending changes are then applied together.
+ * Work for one user never runs concurrently on this instance; the lock stripes are in memory, so
+ * across instances the Streak version check decides. A periodic sweep retries anything left
+ * behind by a failure or restart, backing off after each failed run; changes that still fail after
+ * {@code entry.pipeline.park-after} runs are parked. Readers that need an up-to-date streak call {@link #flush}.
+ */
+@Component
+public class EntryChangePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(EntryChangePipeline.class);
+    private static final int LOCK_STRIPES = 64;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final EntryChangeProcessor processor;
+    private final EntryChangeRepo changeRepo;
+    private final long coalesceMs;
+    private final long sweepMs;
+    private final int parkAfter;
+    private final ScheduledExecutorService executor;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    // Users with unapplied changes, with a counter so a run only clears what it saw.
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Counter failures;
+    private final Counter conflicts;
+    private final Counter parked;
+
+    public EntryChangePipeline(EntryChangeProcessor processor, EntryChangeRepo changeRepo,
+                               @Value("${entry.pipeline.threads:2}") int threads,
+                               @Value("${entry.pipeline.coalesce-ms:250}") long coalesceMs,
+                               @Value("${entry.pipeline.sweep-ms:5000}") long sweepMs,
+                               @Value("${entry.pipeline.park-after:8}") int parkAfter,
+                               MeterRegistry registry) {
+        this.processor = processor;
+        this.changeRepo = changeRepo;
+        this.coalesceMs = coalesceMs;
+        this.sweepMs = sweepMs;
+        this.parkAfter = parkAfter;
+        this.executor = Executors.newScheduledThreadPool(threads,
+                Thread.ofPlatform().name("entry-pipeline-", 0).daemon(true).factory());
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new ReentrantLock();
+
+        this.failures = Counter.builder("greenify.pipeline.failures")
+                .description("Pipeline runs that failed and were left for the sweep")
+                .register(registry);
+        this.conflicts = Counter.builder("greenify.pipeline.conflicts")
+                .description("Runs repeated after a concurrent streak update")
+                .register(registry);
+        this.parked = Counter.builder("greenify.pipeline.parked")
+                .description("Changes parked after failing entry.pipeline.park-after runs")
+                .register(registry);
+        Gauge.builder("greenify.pipeline.scheduled", scheduled, Set::size).register(registry);
+        Gauge.builder("greenify.pipeline.pending", pending, Map::size).register(registry);
+    }
+
+    // Picks up changes left by a previous run of the app (or queued in bulk) before any request can read around them.
+    @PostConstruct
+    void recover() {
+        Instant now = Instant.now();
+        for (Long userId : changeRepo.findUsersWithChangesBefore(now, now)) {
+            markPending(userId);
+            schedule(userId, 0);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEntryChanged(DailyEntryChangedEvent e) {
+        markPending(e.userId());
+        schedule(e.userId(), coalesceMs);
+    }
+
+    // Runs inside the deleting transaction so the user's pending changes go with it.
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent e) {
+        changeRepo.deleteByUserId(e.userId());
+        pending.remove(e.userId());
+    }
+
+    /**
+     * Applies the user's pending changes on the calling thread, if there are any. Writes handled
+     * here are known from memory; writes committed by other instances are found by an indexed
+     * existence check on entry_change.
+     */
+    public void flush(Long userId) {
+        if (pending.containsKey(userId) || changeRepo.existsByUserIdAndParkedAtIsNull(userId)) drain(userId);
+    }
+
+    @Scheduled(initialDelayString = "${entry.pipeline.sweep-ms:5000}", fixedDelayString = "${entry.pipeline.sweep-ms:5000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        for (Long userId : changeRepo.findUsersWithChangesBefore(now.minusMillis(sweepMs), now)) {
+            markPending(userId);
+            schedule(userId, 0);
+        }
+    }
+
+    private void markPending(Long userId) {
+        pending.merge(userId, 1L, Long::sum);
+    }
+
+    private void schedule(Long userId, long delayMs) {
+        if (!scheduled.add(userId)) return;
+        executor.schedule(() -> {
+            // Cleared before draining so changes committed mid-run get a run of their own.
+            scheduled.remove(userId);
+            drain(userId);
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain(Long userId) {
+        ReentrantLock lock = locks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Long seen = pending.get(userId);
+            applyWithRetry(userId);
+            if (seen != null) pending.remove(userId, seen);
+        } catch (RuntimeException ex) {
+            failures.increment();
+            recordFailure(userId, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordFailure(Long userId, RuntimeException cause) {
+        try {
+            int n = processor.recordFailure(userId, parkAfter, Duration.ofMillis(sweepMs));
+            if (n > 0) {
+                parked.increment(n);
+                log.error("Parked {} entry changes for user {} after {} failed runs", n, userId, parkAfter, cause);
+                return;
+            }
+        } catch (RuntimeException ex) {
+            cause.addSuppressed(ex);
+        }
+        log.warn("Applying entry changes for user {} failed; will retry on a later sweep", userId, cause);
+    }
+
+    // The stripe lock only covers this instance; the Streak version check catches writers elsewhere.
+    // Processing re-reads everything, so a conflicting run is simply repeated.
+    void applyWithRetry(Long userId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                processor.process(userId);
+                return;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException ex) {
+                if (attempt >= MAX_ATTEMPTS) throw ex;
+                conflicts.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
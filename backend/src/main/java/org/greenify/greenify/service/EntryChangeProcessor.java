@@ -0,0 +1,171 @@
+package org.greenify.greenify.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.greenify.greenify.dto.DailyEntryRow;
+import org.greenify.greenify.event.StreakChangedEvent;
+import org.greenify.greenify.model.EntryChange;
+import org.greenify.greenify.model.Streak;
+import org.greenify.greenify.repository.CategoryActivityRepo;
+import org.greenify.greenify.repository.DailyEntryRepo;
+import org.greenify.greenify.repository.EntryChangeRepo;
+import org.greenify.greenify.repository.StreakRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a user's pending entry changes to their streak, rollups and category activity in one transaction.
+ * Reads the current entry values rather than the change payloads, so processing several
+ * changes at once (or the same change twice) gives the same result as applying them in order.
+ * Every run bumps the Streak version, so two overlapping runs for one user cannot both commit.
+ */
+@Service
+public class EntryChangeProcessor {
+
+    private final EntryChangeRepo changeRepo;
+    private final DailyEntryRepo dailyRepo;
+    private final StreakRepo streakRepo;
+    private final UserService userService;
+    private final RollupService rollupService;
+    private final CategoryActivityRepo categoryRepo;
+    private final ScoringService scoring;
+    private final ApplicationEventPublisher events;
+    private final Timer streakTimer;
+    private final Timer lagTimer;
+
+    public EntryChangeProcessor(EntryChangeRepo changeRepo, DailyEntryRepo dailyRepo, StreakRepo streakRepo,
+                                UserService userService, RollupService rollupService,
+                                CategoryActivityRepo categoryRepo, ScoringService scoring,
+                                ApplicationEventPublisher events, MeterRegistry registry) {
+        this.changeRepo = changeRepo;
+        this.dailyRepo = dailyRepo;
+        this.streakRepo = streakRepo;
+        this.userService = userService;
+        this.rollupService = rollupService;
+        this.categoryRepo = categoryRepo;
+        this.scoring = scoring;
+        this.events = events;
+        this.streakTimer = Timer.builder("greenify.streak.update").register(registry);
+        this.lagTimer = Timer.builder("greenify.pipeline.lag")
+                .description("Age of the oldest pending change when it was applied")
+                .register(registry);
+    }
+
+    /** Returns the number of pending changes that were applied. */
+    @Transactional
+    public int process(Long userId) {
+        List<EntryChange> changes = changeRepo.findByUserIdAndParkedAtIsNullOrderById(userId);
+        if (changes.isEmpty()) return 0;
+
+        TreeSet<LocalDate> dates = changes.stream().map(EntryChange::getDate)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        List<DailyEntryRow> rows = dailyRepo.findRowsForDates(userId, dates);
+
+        Timer.Sample sample = Timer.start();
+        Streak s = loadStreak(userId);
+        updateStreak(s, bitmapOf(s, dates.first()), rows);
+        saveStreak(s);
+        sample.stop(streakTimer);
+
+        rollupService.recompute(userId, dates);
+
+        // Days without a row (e.g. purged) end up with no category rows.
+        Map<LocalDate, CategoryBreakdown> categories = new LinkedHashMap<>();
+        for (LocalDate d : dates) categories.put(d, CategoryBreakdown.EMPTY);
+        ScoringRules rules = scoring.active();
+        for (DailyEntryRow r : rows) categories.put(r.date(), rules.breakdown(r));
+        categoryRepo.replace(userId, categories);
+        changeRepo.deleteAllByIdInBatch(changes.stream().map(EntryChange::getId).toList());
+
+        Instant oldest = changes.stream().map(EntryChange::getCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        lagTimer.record(Duration.between(oldest, Instant.now()));
+        return changes.size();
+    }
+
+    /**
+     * Counts a failed run against the user's unparked changes. Each one is next picked up by the
+     * sweep after {@code baseDelay} doubled per attempt, and parked once it has failed
+     * {@code parkAfter} times. Returns the number of changes parked.
+     */
+    @Transactional
+    public int recordFailure(Long userId, int parkAfter, Duration baseDelay) {
+        Instant now = Instant.now();
+        int parked = 0;
+        for (EntryChange c : changeRepo.findByUserIdAndParkedAtIsNullOrderById(userId)) {
+            c.setAttempts(c.getAttempts() + 1);
+            if (c.getAttempts() >= parkAfter) {
+                c.setParkedAt(now);
+                parked++;
+            } else {
+                c.setRetryAfter(now.plus(baseDelay.multipliedBy(1L << Math.min(c.getAttempts() - 1, 10))));
+            }
+        }
+        return parked;
+    }
+
+    private void saveStreak(Streak s) {
+        streakRepo.save(s);
+        events.publishEvent(new StreakChangedEvent(s.getUserId(), s.getCurrentStreak(), s.getHighestStreak()));
+    }
+
+    private Streak loadStreak(Long userId) {
+        return streakRepo.findForUpdate(userId).orElseGet(() -> {
+            Streak ns = new Streak();
+            ns.setUserId(userId);
+            ns.setUser(userService.getReference(userId));
+            return ns;
+        });
+    }
+
+    // Streaks saved before the bitmap existed are rebuilt from the user's history, archived months included, once.
+    private StreakBitmap bitmapOf(Streak s, LocalDate anyDay) {
+        if (s.getQualifyingDays() != null && s.getBitmapOrigin() != null) {
+            return StreakBitmap.decode(s.getBitmapOrigin(), s.getQualifyingDays());
+        }
+        StreakBitmap bits = StreakBitmap.empty(anyDay);
+        for (DailyEntryRow r : dailyRepo.findArchivedRows(s.getUserId())) {
+            markDay(s, bits, r.date(), r.pointsTotal());
+        }
+        for (DailyEntryRow r : dailyRepo.findAllRows(s.getUserId())) {
+            markDay(s, bits, r.date(), r.pointsTotal());
+        }
+        return bits;
+    }
+
+    /** The in-memory part of a streak update: marks the given days and recomputes the streak fields. */
+    public static void updateStreak(Streak s, StreakBitmap bits, List<DailyEntryRow> rows) {
+        for (DailyEntryRow r : rows) {
+            markDay(s, bits, r.date(), r.pointsTotal());
+        }
+        recompute(s, bits);
+    }
+
+    private static void markDay(Streak s, StreakBitmap bits, LocalDate date, int points) {
+        bits.set(date, points >= s.getGoalPoints());
+        if (s.getLastEntryDate() == null || date.isAfter(s.getLastEntryDate())) {
+            s.setLastEntryDate(date);
+        }
+    }
+
+    // Current streak is the run ending on the latest qualifying day, unless a later day was logged below goal.
+    private static void recompute(Streak s, StreakBitmap bits) {
+        LocalDate last = bits.lastSet();
+        s.setLastQualifyingDate(last);
+        s.setCurrentStreak(last == null || s.getLastEntryDate().isAfter(last) ? 0 : bits.runEndingAt(last));
+        s.setHighestStreak(bits.longestRun());
+        s.setBitmapOrigin(bits.origin());
+        s.setQualifyingDays(bits.encode());
+    }
+}
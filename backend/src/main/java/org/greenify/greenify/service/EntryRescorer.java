@@ -0,0 +1,51 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.RescoreRow;
+import org.greenify.greenify.dto.RescoredEntry;
+import org.greenify.greenify.event.DailyEntryChangedEvent;
+import org.greenify.greenify.model.EntryChange;
+import org.greenify.greenify.repository.DailyEntryRepo;
+import org.greenify.greenify.repository.EntryChangeRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Re-scores one chunk of entries in its own transaction. Entries whose points change go through
+ * the same change log and events as a user's own write, so streaks, rollups, categories,
+ * leaderboards and ETags all follow.
+ */
+@Service
+public class EntryRescorer {
+
+    private final DailyEntryRepo dailyRepo;
+    private final EntryChangeRepo changeRepo;
+    private final ApplicationEventPublisher events;
+
+    public EntryRescorer(DailyEntryRepo dailyRepo, EntryChangeRepo changeRepo, ApplicationEventPublisher events) {
+        this.dailyRepo = dailyRepo;
+        this.changeRepo = changeRepo;
+        this.events = events;
+    }
+
+    /** Returns the number of entries whose points changed. */
+    @Transactional
+    public int rescore(List<RescoreRow> rows, ScoringRules rules) {
+        int[] points = new int[rows.size()];
+        for (int i = 0; i < points.length; i++) {
+            RescoreRow r = rows.get(i);
+            points[i] = rules.score(r.milesDriven(), r.trashCount(), r.recycleCount(), r.reusableBag(), r.reusableBottle());
+        }
+
+        List<RescoredEntry> changed = dailyRepo.rescore(rules.version(), rows, points).stream()
+                .filter(e -> e.previousPoints() != e.pointsTotal())
+                .toList();
+        changeRepo.saveAll(changed.stream().map(e -> new EntryChange(e.userId(), e.date())).toList());
+        for (RescoredEntry e : changed) {
+            events.publishEvent(new DailyEntryChangedEvent(e.userId(), e.date(), e.previousPoints(), e.pointsTotal()));
+        }
+        return changed.size();
+    }
+}
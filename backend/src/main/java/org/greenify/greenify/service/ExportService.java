@@ -0,0 +1,90 @@
+package org.greenify.greenify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.greenify.greenify.dto.ExportRow;
+import org.greenify.greenify.model.enums.ExportFormat;
+import org.greenify.greenify.repository.DailyEntryRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Writes entry history as CSV or NDJSON straight from a database cursor. Only one fetch batch and
+ * the write buffer are held at a time, so a user's full history and an all-users export cost the same memory.
+ */
+@Service
+public class ExportService {
+
+    private static final String CSV_HEADER =
+            "user_id,date,miles_driven,trash_count,recycle_count,reusable_bag,reusable_bottle,points_total\n";
+
+    private final DailyEntryRepo dailyRepo;
+    private final int fetchSize;
+    private final Duration timeout;
+    private final Counter exported;
+
+    public ExportService(DailyEntryRepo dailyRepo, @Value("${export.fetch-size:1000}") int fetchSize,
+                         @Value("${export.timeout:10m}") Duration timeout, MeterRegistry registry) {
+        this.dailyRepo = dailyRepo;
+        this.fetchSize = fetchSize;
+        this.timeout = timeout;
+        this.exported = Counter.builder("greenify.export.rows").register(registry);
+    }
+
+    /** Async timeout for an export request: a little over the export's own cap, so the cap ends it cleanly. */
+    public Duration requestTimeout() {
+        return timeout.plusSeconds(30);
+    }
+
+    /**
+     * Exports one user's entries, or every user's when {@code userId} is null. A slow client keeps
+     * the cursor's connection and transaction open, so an export running past export.timeout is cut
+     * off with IllegalStateException.
+     */
+    @Transactional(readOnly = true)
+    public void export(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) w.write(CSV_HEADER);
+        try {
+            dailyRepo.forEachRow(userId, fetchSize, r -> {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Export took longer than " + timeout + " and was stopped");
+                }
+                try {
+                    if (format == ExportFormat.CSV) writeCsv(w, r);
+                    else writeJson(w, r);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exported.increment();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        w.flush();
+    }
+
+    // Every field is a number, boolean or ISO date, so no quoting or escaping is needed.
+    private static void writeCsv(Writer w, ExportRow r) throws IOException {
+        w.write(r.userId() + "," + r.date() + "," + r.milesDriven() + "," + r.trashCount() + ","
+                + r.recycleCount() + "," + r.reusableBag() + "," + r.reusableBottle() + "," + r.pointsTotal() + "\n");
+    }
+
+    private static void writeJson(Writer w, ExportRow r) throws IOException {
+        w.write("{\"userId\":" + r.userId() + ",\"date\":\"" + r.date() + "\",\"milesDriven\":" + r.milesDriven()
+                + ",\"trashCount\":" + r.trashCount() + ",\"recycleCount\":" + r.recycleCount()
+                + ",\"reusableBag\":" + r.reusableBag() + ",\"reusableBottle\":" + r.reusableBottle()
+                + ",\"pointsTotal\":" + r.pointsTotal() + "}\n");
+    }
+}
@@ -0,0 +1,119 @@
+package org.greenify.greenify.service;
+
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * HMAC keys used to sign and verify JWTs, loaded from a properties file shared by all nodes:
+ * <pre>
+ * keys.2025-01=&lt;base64 secret, at least 32 bytes&gt;
+ * keys.2025-02=&lt;base64 secret&gt;
+ * active=2025-02
+ * </pre>
+ * Every listed key verifies tokens carrying its {@code kid}; only {@code active} signs. The file is
+ * re-read when it changes, so a key can be added everywhere first and made active afterwards.
+ * Without a file a random key is generated, which only suits a single dev node.
+ */
+@Component
+public class JWTKeyRing {
+
+    public record SigningKey(String kid, SecretKey key) {}
+
+    private record Ring(Map<String, SecretKey> keys, SigningKey active, long lastModified) {}
+
+    private static final Logger log = LoggerFactory.getLogger(JWTKeyRing.class);
+    private static final String KEY_PREFIX = "keys.";
+
+    private final Path file;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile Ring ring;
+
+    public JWTKeyRing(@Value("${jwt.keys.file:}") String file) {
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.ring = this.file == null ? ephemeral() : load(this.file);
+    }
+
+    public SigningKey active() {
+        return ring.active();
+    }
+
+    public SecretKey find(String kid) {
+        return kid == null ? null : ring.keys().get(kid);
+    }
+
+    public void onChange(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (file == null) return;
+        try {
+            if (Files.getLastModifiedTime(file).toMillis() == ring.lastModified()) return;
+            ring = load(file);
+            log.info("Reloaded JWT key ring: kids={}, active={}", ring.keys().keySet(), ring.active().kid());
+            listeners.forEach(Runnable::run);
+        } catch (IOException | IllegalStateException e) {
+            log.error("Keeping previous JWT key ring, reload of {} failed", file, e);
+        }
+    }
+
+    private static Ring load(Path file) {
+        Properties props = new Properties();
+        long lastModified;
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+            lastModified = Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT key file " + file, e);
+        }
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            if (!name.startsWith(KEY_PREFIX)) continue;
+            String kid = name.substring(KEY_PREFIX.length());
+            try {
+                keys.put(kid, Keys.hmacShaKeyFor(Base64.getDecoder().decode(props.getProperty(name).trim())));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Invalid JWT key '" + kid + "' in " + file, e);
+            }
+        }
+        String activeKid = props.getProperty("active", "").trim();
+        SecretKey activeKey = keys.get(activeKid);
+        if (activeKey == null) {
+            throw new IllegalStateException("Active JWT key '" + activeKid + "' is not defined in " + file);
+        }
+        return new Ring(Map.copyOf(keys), new SigningKey(activeKid, activeKey), lastModified);
+    }
+
+    private static Ring ephemeral() {
+        try {
+            SecretKey key = Keys.hmacShaKeyFor(KeyGenerator.getInstance("HmacSHA256").generateKey().getEncoded());
+            String kid = "ephemeral-" + UUID.randomUUID();
+            log.warn("jwt.keys.file is not set; using a random signing key. Tokens will not survive a restart "
+                    + "or validate on other nodes.");
+            return new Ring(Map.of(kid, key), new SigningKey(kid, key), 0L);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("error generating secretKey", e);
+        }
+    }
+}
@@ -1,74 +1,125 @@
 package org.greenify.greenify.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.time.Instant;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JWTService {
 
-    private final String secretKey;
+    public record VerifiedToken(Long userId, String username, Instant expiresAt) {}
 
-    public JWTService() {
-        this.secretKey = generateSecretKey();
-    }
+    private final JWTKeyRing keyRing;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+    private final Timer cacheHitTimer;
+    private final Timer parseTimer;
+    private final Counter failures;
 
-    private String generateSecretKey() {
-        try {
-            KeyGenerator keyGenerator = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey secretKey = keyGenerator.generateKey();
-            return Base64.getEncoder().encodeToString(secretKey.getEncoded());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("error generating secretKey", e);
-        }
-    }
+    public JWTService(JWTKeyRing keyRing, @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                      MeterRegistry registry) {
+        this.keyRing = keyRing;
+        this.cacheHitTimer = Timer.builder("greenify.jwt.verify").tag("cache", "hit").register(registry);
+        this.parseTimer = Timer.builder("greenify.jwt.verify").tag("cache", "miss").register(registry);
+        this.failures = Counter.builder("greenify.jwt.failures")
+                .description("Tokens rejected as malformed, badly signed or expired")
+                .register(registry);
+        // Key is chosen by the token's kid header, so rotation never needs trial verification.
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyRing.find(header.getKeyId());
+                    }
+                })
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String k, VerifiedToken v, long now) {
+                        long millis = v.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+                    }
 
-    private Key getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+                    @Override
+                    public long expireAfterUpdate(String k, VerifiedToken v, long now, long current) {
+                        return current;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String k, VerifiedToken v, long now, long current) {
+                        return current;
+                    }
+                })
+                .build();
+        keyRing.onChange(verified::invalidateAll);
     }
 
     public String generateToken(Long userId, String username) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
+        JWTKeyRing.SigningKey signing = keyRing.active();
         return Jwts.builder()
-                .claims(claims)
+                .header().keyId(signing.kid()).and()
+                .claim("userId", userId)
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24h
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .signWith(signing.key(), Jwts.SIG.HS256)
                 .compact();
     }
 
-    public String extractUserName(String token) {
-        return extractAllClaims(token).getSubject();
-    }
-
-    public Long extractUserId(String token) {
-        return extractAllClaims(token).get("userId", Long.class);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(getKey()).build()
-                .parseClaimsJws(token).getBody();
+    /**
+     * Verifies the token once and returns its identity claims. Verified tokens are cached
+     * by hash until they expire, so repeat requests with the same token skip parsing and HMAC.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        long start = System.nanoTime();
+        String cacheKey = hash(token);
+        VerifiedToken cached = verified.getIfPresent(cacheKey);
+        if (cached != null) {
+            boolean live = cached.expiresAt().isAfter(Instant.now());
+            cacheHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!live) failures.increment();
+            return live ? Optional.of(cached) : Optional.empty();
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            VerifiedToken v = new VerifiedToken(
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    claims.getExpiration().toInstant());
+            verified.put(cacheKey, v);
+            return Optional.of(v);
+        } catch (JwtException | IllegalArgumentException e) {
+            failures.increment();
+            return Optional.empty();
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    public boolean validateToken(String token) {
+    private static String hash(String token) {
         try {
-            extractAllClaims(token); // parses & checks signature/expiry
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
-
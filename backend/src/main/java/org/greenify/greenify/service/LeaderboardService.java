@@ -0,0 +1,197 @@
+package org.greenify.greenify.service;
+
+import jakarta.annotation.PostConstruct;
+import org.greenify.greenify.dto.LeaderboardEntryView;
+import org.greenify.greenify.dto.LeaderboardView;
+import org.greenify.greenify.dto.UserScore;
+import org.greenify.greenify.dto.UsernameView;
+import org.greenify.greenify.event.DailyEntryChangedEvent;
+import org.greenify.greenify.event.StreakChangedEvent;
+import org.greenify.greenify.event.UserDeletedEvent;
+import org.greenify.greenify.event.UsernameChangedEvent;
+import org.greenify.greenify.model.enums.LeaderboardMetric;
+import org.greenify.greenify.model.enums.LeaderboardWindow;
+import org.greenify.greenify.repository.DailyEntryRepo;
+import org.greenify.greenify.repository.StreakRepo;
+import org.greenify.greenify.repository.UserRepo;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory rankings of total points (all time, per week, per month) and highest streak.
+ * Boards are loaded from the database at startup and then kept current from committed
+ * entry/streak changes, so reads never aggregate over daily_entry. Events only reach the instance
+ * that handled the write, so every {@code leaderboard.rebuild-ms} the boards are rebuilt from the
+ * database and swapped in; that bounds how far one instance's boards can lag writes made on another.
+ */
+@Service
+public class LeaderboardService {
+
+    static final int MAX_LIMIT = 100;
+
+    private final DailyEntryRepo dailyRepo;
+    private final StreakRepo streakRepo;
+    private final UserRepo userRepo;
+    private final DisabledUsers disabledUsers;
+
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    private volatile Boards boards = new Boards();
+
+    private static final class Boards {
+        final RankedScores allTimePoints = new RankedScores();
+        final RankedScores highestStreaks = new RankedScores();
+        final ConcurrentSkipListMap<LocalDate, RankedScores> weeklyPoints = new ConcurrentSkipListMap<>();
+        final ConcurrentSkipListMap<LocalDate, RankedScores> monthlyPoints = new ConcurrentSkipListMap<>();
+
+        ConcurrentSkipListMap<LocalDate, RankedScores> windowed(LeaderboardWindow w) {
+            return w == LeaderboardWindow.WEEK ? weeklyPoints : monthlyPoints;
+        }
+    }
+
+    public LeaderboardService(DailyEntryRepo dailyRepo, StreakRepo streakRepo, UserRepo userRepo,
+                              DisabledUsers disabledUsers) {
+        this.dailyRepo = dailyRepo;
+        this.streakRepo = streakRepo;
+        this.userRepo = userRepo;
+        this.disabledUsers = disabledUsers;
+    }
+
+    // The first run happens before the web server accepts requests. Later runs build new boards on the
+    // side; a change applied to the old boards while this reads can be lost or, if it was already
+    // read, counted twice, until the next rebuild.
+    @PostConstruct
+    @Scheduled(initialDelayString = "${leaderboard.rebuild-ms:300000}", fixedDelayString = "${leaderboard.rebuild-ms:300000}")
+    public void rebuild() {
+        Boards b = new Boards();
+        LocalDate today = LocalDate.now();
+        // Deleted accounts whose purge has not finished still have rows; leave them off the boards.
+        dailyRepo.sumPointsByUser().stream().filter(s -> !disabledUsers.contains(s.userId()))
+                .forEach(s -> b.allTimePoints.set(s.userId(), s.score()));
+        // Months past retention live in daily_entry_archive instead.
+        dailyRepo.sumArchivedPointsByUser().stream().filter(s -> !disabledUsers.contains(s.userId()))
+                .forEach(s -> b.allTimePoints.add(s.userId(), s.score()));
+        streakRepo.findHighestStreaks().stream().filter(s -> !disabledUsers.contains(s.userId()))
+                .forEach(s -> b.highestStreaks.set(s.userId(), s.score()));
+        for (LeaderboardWindow w : List.of(LeaderboardWindow.WEEK, LeaderboardWindow.MONTH)) {
+            LocalDate current = windowStart(w, today);
+            for (LocalDate start : List.of(previous(w, current), current)) {
+                RankedScores board = b.windowed(w).computeIfAbsent(start, k -> new RankedScores());
+                for (UserScore s : dailyRepo.sumPointsByUserBetween(start, next(w, start).minusDays(1))) {
+                    if (!disabledUsers.contains(s.userId())) board.set(s.userId(), s.score());
+                }
+            }
+        }
+        boards = b;
+        // Renames made on other instances are picked up the same way.
+        usernames.clear();
+    }
+
+    @TransactionalEventListener
+    public void onEntryChanged(DailyEntryChangedEvent e) {
+        long delta = (long) e.newPoints() - e.oldPoints();
+        if (delta == 0 || disabledUsers.contains(e.userId())) return;
+        Boards b = boards;
+        b.allTimePoints.add(e.userId(), delta);
+        for (LeaderboardWindow w : List.of(LeaderboardWindow.WEEK, LeaderboardWindow.MONTH)) {
+            RankedScores board = retainedBoard(b, w, e.date());
+            if (board != null) board.add(e.userId(), delta);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onStreakChanged(StreakChangedEvent e) {
+        if (disabledUsers.contains(e.userId())) return;
+        boards.highestStreaks.set(e.userId(), e.highestStreak());
+    }
+
+    @TransactionalEventListener
+    public void onUsernameChanged(UsernameChangedEvent e) {
+        usernames.put(e.userId(), e.newUsername());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent e) {
+        Boards b = boards;
+        b.allTimePoints.remove(e.userId());
+        b.highestStreaks.remove(e.userId());
+        b.weeklyPoints.values().forEach(board -> board.remove(e.userId()));
+        b.monthlyPoints.values().forEach(board -> board.remove(e.userId()));
+        usernames.remove(e.userId());
+    }
+
+    public LeaderboardView view(LeaderboardMetric metric, LeaderboardWindow window, int limit, Long userId) {
+        if (metric == LeaderboardMetric.STREAK && window != LeaderboardWindow.ALL) {
+            throw new IllegalArgumentException("Streak leaderboard is only available for window ALL");
+        }
+        LocalDate start = window == LeaderboardWindow.ALL ? null : windowStart(window, LocalDate.now());
+        Boards b = boards;
+        RankedScores board = switch (window) {
+            case ALL -> metric == LeaderboardMetric.STREAK ? b.highestStreaks : b.allTimePoints;
+            case WEEK, MONTH -> b.windowed(window).computeIfAbsent(start, k -> new RankedScores());
+        };
+
+        List<RankedScores.Ranked> top = board.top(Math.min(Math.max(limit, 1), MAX_LIMIT));
+        RankedScores.Ranked mine = userId == null ? null : board.rankOf(userId);
+
+        Set<Long> ids = top.stream().map(RankedScores.Ranked::userId).collect(Collectors.toSet());
+        if (mine != null) ids.add(mine.userId());
+        resolveUsernames(ids);
+
+        List<LeaderboardEntryView> entries = new ArrayList<>(top.size());
+        for (RankedScores.Ranked r : top) entries.add(toView(r));
+        return new LeaderboardView(
+                metric.name(),
+                window.name(),
+                start == null ? null : start.toString(),
+                entries,
+                mine == null ? null : toView(mine));
+    }
+
+    private LeaderboardEntryView toView(RankedScores.Ranked r) {
+        return new LeaderboardEntryView(r.rank(), r.userId(), usernames.get(r.userId()), r.score());
+    }
+
+    private void resolveUsernames(Set<Long> ids) {
+        List<Long> missing = ids.stream().filter(id -> !usernames.containsKey(id)).toList();
+        if (missing.isEmpty()) return;
+        for (UsernameView u : userRepo.findUsernames(missing)) {
+            usernames.put(u.id(), u.username());
+        }
+    }
+
+    // Windowed boards keep the current and previous window; older corrections only move the all-time board.
+    private static RankedScores retainedBoard(Boards b, LeaderboardWindow w, LocalDate date) {
+        ConcurrentSkipListMap<LocalDate, RankedScores> windowed = b.windowed(w);
+        LocalDate oldest = previous(w, windowStart(w, LocalDate.now()));
+        windowed.headMap(oldest).clear();
+        LocalDate start = windowStart(w, date);
+        if (start.isBefore(oldest)) return null;
+        return windowed.computeIfAbsent(start, k -> new RankedScores());
+    }
+
+    private static LocalDate windowStart(LeaderboardWindow w, LocalDate date) {
+        return w == LeaderboardWindow.WEEK
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+    }
+
+    private static LocalDate previous(LeaderboardWindow w, LocalDate start) {
+        return w == LeaderboardWindow.WEEK ? start.minusWeeks(1) : start.minusMonths(1);
+    }
+
+    private static LocalDate next(LeaderboardWindow w, LocalDate start) {
+        return w == LeaderboardWindow.WEEK ? start.plusWeeks(1) : start.plusMonths(1);
+    }
+}
@@ -0,0 +1,121 @@
+package org.greenify.greenify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.greenify.greenify.dto.UserHandle;
+import org.greenify.greenify.event.UsernameChangedEvent;
+import org.greenify.greenify.repository.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "is this username/email taken?" for the common case without a query. Bloom filters over
+ * normalized usernames and emails say "definitely free" for most unused names; only possible hits
+ * go to the unique index. Names are added as they are registered or renamed to. Filters cannot forget,
+ * so renamed and deleted names stay "possibly taken" (and hit the database) until the periodic
+ * rebuild, which also picks up names registered on other instances.
+ */
+@Service
+public class NameAvailability {
+
+    private static final Logger log = LoggerFactory.getLogger(NameAvailability.class);
+    private static final int WARM_PAGE = 10_000;
+
+    private record Filters(BloomFilter usernames, BloomFilter emails, AtomicLong added) {}
+
+    private final UserRepo userRepo;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final Counter skipped;
+    private final Counter queried;
+    private volatile Filters filters;
+    private volatile Filters building;
+
+    public NameAvailability(UserRepo userRepo,
+                            @Value("${user.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${user.availability.min-capacity:100000}") long minCapacity,
+                            MeterRegistry registry) {
+        this.userRepo = userRepo;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.skipped = Counter.builder("greenify.availability.checks").tag("result", "filtered").register(registry);
+        this.queried = Counter.builder("greenify.availability.checks").tag("result", "queried").register(registry);
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${user.availability.rebuild-ms:3600000}",
+            fixedDelayString = "${user.availability.rebuild-ms:3600000}")
+    public void rebuild() {
+        long users = userRepo.count();
+        long capacity = Math.max(minCapacity, users * 2);
+        Filters next = new Filters(BloomFilter.create(capacity, falsePositiveRate),
+                BloomFilter.create(capacity, falsePositiveRate), new AtomicLong());
+        // Names registered while the scan runs go into both. The swap and every add hold the same
+        // monitor, so an add lands either in the old filters and next, or in next after the swap.
+        synchronized (this) {
+            building = next;
+        }
+        long afterId = 0;
+        List<UserHandle> page;
+        do {
+            page = userRepo.findHandlesAfter(afterId, PageRequest.of(0, WARM_PAGE));
+            for (UserHandle u : page) {
+                add(next, u.username(), u.email());
+                afterId = u.id();
+            }
+        } while (page.size() == WARM_PAGE);
+        synchronized (this) {
+            filters = next;
+            building = null;
+        }
+        log.info("Loaded {} users into the availability filters (capacity {})", next.added().get(), capacity);
+    }
+
+    /** False means no user has this username; true means one may, so the caller must query. */
+    public boolean usernameMayBeTaken(String username) {
+        return count(filters.usernames().mightContain(normalize(username)));
+    }
+
+    /** False means no user has this email; true means one may, so the caller must query. */
+    public boolean emailMayBeTaken(String email) {
+        return count(filters.emails().mightContain(normalize(email)));
+    }
+
+    // Call after the user is saved. Past capacity the false positive rate climbs until the next rebuild resizes.
+    public synchronized void registered(String username, String email) {
+        add(filters, username, email);
+        if (building != null) add(building, username, email);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onUsernameChanged(UsernameChangedEvent e) {
+        filters.usernames().put(normalize(e.newUsername()));
+        if (building != null) building.usernames().put(normalize(e.newUsername()));
+    }
+
+    private static void add(Filters f, String username, String email) {
+        f.usernames().put(normalize(username));
+        f.emails().put(normalize(email));
+        f.added().incrementAndGet();
+    }
+
+    private boolean count(boolean mayBeTaken) {
+        (mayBeTaken ? queried : skipped).increment();
+        return mayBeTaken;
+    }
+
+    // Only ever widens a match: names equal in the database are equal here.
+    static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,183 @@
+package org.greenify.greenify.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order-statistic treap of user scores (highest first, ties broken by user id). Updates,
+ * rank lookups and top-N reads are all O(log n) / O(log n + N).
+ */
+final class RankedScores {
+
+    record Ranked(int rank, long userId, long score) {}
+
+    private static final class Node {
+        final long score;
+        final long userId;
+        final int priority;
+        Node left, right;
+        int size = 1;
+
+        Node(long score, long userId, int priority) {
+            this.score = score;
+            this.userId = userId;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+
+    void add(long userId, long delta) {
+        if (delta == 0) return;
+        lock.writeLock().lock();
+        try {
+            put(userId, scores.getOrDefault(userId, 0L) + delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void set(long userId, long score) {
+        lock.writeLock().lock();
+        try {
+            put(userId, score);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long userId) {
+        set(userId, 0);
+    }
+
+    Ranked rankOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(userId);
+            if (score == null) return null;
+            int before = 0;
+            Node t = root;
+            while (t != null) {
+                int c = compare(score, userId, t);
+                if (c < 0) {
+                    t = t.left;
+                } else if (c > 0) {
+                    before += size(t.left) + 1;
+                    t = t.right;
+                } else {
+                    before += size(t.left);
+                    break;
+                }
+            }
+            return new Ranked(before + 1, userId, score);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Ranked> top(int n) {
+        lock.readLock().lock();
+        try {
+            List<Ranked> out = new ArrayList<>(Math.min(n, scores.size()));
+            Deque<Node> stack = new ArrayDeque<>();
+            Node t = root;
+            while ((t != null || !stack.isEmpty()) && out.size() < n) {
+                while (t != null) {
+                    stack.push(t);
+                    t = t.left;
+                }
+                t = stack.pop();
+                out.add(new Ranked(out.size() + 1, t.userId, t.score));
+                t = t.right;
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Users whose score drops to zero leave the board.
+    private void put(long userId, long score) {
+        Long old = scores.get(userId);
+        if (old != null) {
+            if (old == score) return;
+            root = erase(root, old, userId);
+            scores.remove(userId);
+        }
+        if (score != 0) {
+            Node n = new Node(score, userId, random.nextInt());
+            Node[] lr = split(root, score, userId);
+            root = merge(merge(lr[0], n), lr[1]);
+            scores.put(userId, score);
+        }
+    }
+
+    private static int compare(long score, long userId, Node t) {
+        if (score != t.score) return score > t.score ? -1 : 1;
+        return Long.compare(userId, t.userId);
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static void update(Node t) {
+        t.size = 1 + size(t.left) + size(t.right);
+    }
+
+    // Splits into nodes ordered before (score, userId) and the rest.
+    private static Node[] split(Node t, long score, long userId) {
+        if (t == null) return new Node[]{null, null};
+        if (compare(score, userId, t) > 0) {
+            Node[] lr = split(t.right, score, userId);
+            t.right = lr[0];
+            update(t);
+            return new Node[]{t, lr[1]};
+        }
+        Node[] lr = split(t.left, score, userId);
+        t.left = lr[1];
+        update(t);
+        return new Node[]{lr[0], t};
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node erase(Node t, long score, long userId) {
+        if (t == null) return null;
+        int c = compare(score, userId, t);
+        if (c == 0) return merge(t.left, t.right);
+        if (c < 0) t.left = erase(t.left, score, userId);
+        else t.right = erase(t.right, score, userId);
+        update(t);
+        return t;
+    }
+}
@@ -0,0 +1,121 @@
+package org.greenify.greenify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.greenify.greenify.dto.RescoreRow;
+import org.greenify.greenify.repository.DailyEntryRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+/**
+ * Brings every entry up to a rule version. Entries are split into partitions by user id, each
+ * walked in id order in chunks on its own thread, so one user's entries are never re-scored by
+ * two threads at once. Progress is the scoring_version column itself: a job that dies or is
+ * superseded leaves the remaining rows to the next run.
+ * <p>
+ * Other instances keep scoring writes with the old rules until their next reload, so a partition
+ * is walked again until a pass finds nothing, and that pass must start at least one
+ * {@code scoring.reload-interval-ms} after the job did.
+ */
+@Component
+public class RescoreJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RescoreJob.class);
+
+    private final DailyEntryRepo dailyRepo;
+    private final EntryRescorer rescorer;
+    private final int parallelism;
+    private final int chunkSize;
+    private final long reloadIntervalMs;
+    private final ExecutorService executor;
+    private final Counter rescored;
+    private final Counter changed;
+
+    public RescoreJob(DailyEntryRepo dailyRepo, EntryRescorer rescorer,
+                      @Value("${scoring.rescore.threads:4}") int parallelism,
+                      @Value("${scoring.rescore.chunk-size:500}") int chunkSize,
+                      @Value("${scoring.reload-interval-ms:60000}") long reloadIntervalMs,
+                      MeterRegistry registry) {
+        this.dailyRepo = dailyRepo;
+        this.rescorer = rescorer;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.reloadIntervalMs = reloadIntervalMs;
+        this.executor = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("rescore-", 0).daemon(true).factory());
+        this.rescored = Counter.builder("greenify.rescore.entries").register(registry);
+        this.changed = Counter.builder("greenify.rescore.changed").register(registry);
+    }
+
+    /**
+     * Re-scores every entry below {@code rules.version()}. {@code activeVersion} is checked between
+     * chunks; once newer rules are active this run stops and leaves the rest to theirs.
+     * Completes with the number of entries whose points changed.
+     */
+    public CompletableFuture<Integer> start(ScoringRules rules, IntSupplier activeVersion) {
+        log.info("Re-scoring entries with scoring rules v{}", rules.version());
+        Instant settledAt = Instant.now().plusMillis(reloadIntervalMs);
+        List<CompletableFuture<Integer>> parts = new ArrayList<>(parallelism);
+        for (int part = 0; part < parallelism; part++) {
+            int p = part;
+            parts.add(CompletableFuture.supplyAsync(() -> runPartition(rules, p, activeVersion, settledAt), executor));
+        }
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .thenApply(v -> parts.stream().mapToInt(CompletableFuture::join).sum())
+                .whenComplete((n, ex) -> {
+                    if (ex != null) log.error("Re-scoring with rules v{} failed", rules.version(), ex);
+                    else log.info("Re-scoring with rules v{} done, {} entries changed", rules.version(), n);
+                });
+    }
+
+    private int runPartition(ScoringRules rules, int part, IntSupplier activeVersion, Instant settledAt) {
+        int total = 0;
+        while (activeVersion.getAsInt() == rules.version()) {
+            Instant passStart = Instant.now();
+            int found = 0;
+            long afterId = 0;
+            while (activeVersion.getAsInt() == rules.version()) {
+                List<RescoreRow> rows = dailyRepo.findRescoreBatch(
+                        rules.version(), parallelism, part, afterId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) break;
+                int n = rescorer.rescore(rows, rules);
+                rescored.increment(rows.size());
+                changed.increment(n);
+                total += n;
+                found += rows.size();
+                afterId = rows.get(rows.size() - 1).id();
+            }
+            if (passStart.isBefore(settledAt)) sleepUntil(settledAt);
+            else if (found == 0) return total;
+        }
+        return total;
+    }
+
+    // Interrupted runs fail rather than return, so the version is not recorded as re-scored.
+    private static void sleepUntil(Instant until) {
+        try {
+            Thread.sleep(Math.max(0, Duration.between(Instant.now(), until).toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Re-scoring was interrupted", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
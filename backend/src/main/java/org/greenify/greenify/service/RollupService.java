@@ -0,0 +1,91 @@
+package org.greenify.greenify.service;
+
+import jakarta.annotation.PostConstruct;
+import org.greenify.greenify.dto.RollupView;
+import org.greenify.greenify.model.EntryRollup;
+import org.greenify.greenify.model.enums.RollupPeriod;
+import org.greenify.greenify.repository.EntryRollupRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Weekly and monthly per-user totals. Buckets touched by an entry write are rebuilt by the
+ * entry change pipeline, so reads cost one row per bucket. Rebuilding re-sums the bucket's
+ * entries rather than applying a delta: more work per write, but safe to repeat or coalesce.
+ * This replaces the original design, where each write upserted its point delta into the bucket
+ * (INSERT ... ON CONFLICT) and buckets were never re-summed; a retried or reordered change
+ * would then count twice or against a stale previous value.
+ */
+@Service
+public class RollupService {
+
+    private final EntryRollupRepo rollupRepo;
+
+    public RollupService(EntryRollupRepo rollupRepo) {
+        this.rollupRepo = rollupRepo;
+    }
+
+    @PostConstruct
+    public void backfillIfEmpty() {
+        if (rollupRepo.count() > 0) return;
+        rollupRepo.backfillWeeks();
+        rollupRepo.backfillMonths();
+    }
+
+    // Each affected week/month bucket is rebuilt once, however many of its days changed.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recompute(Long userId, Collection<LocalDate> dates) {
+        for (RollupPeriod period : RollupPeriod.values()) {
+            Set<LocalDate> starts = new TreeSet<>();
+            for (LocalDate d : dates) starts.add(periodStart(period, d));
+            for (LocalDate start : starts) {
+                rollupRepo.recompute(userId, period.name(), start, periodEnd(period, start));
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<RollupView> range(Long userId, RollupPeriod period, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        return rollupRepo.findRange(userId, period, periodStart(period, from), periodStart(period, to)).stream()
+                .map(this::toView)
+                .toList();
+    }
+
+    public static LocalDate periodStart(RollupPeriod period, LocalDate date) {
+        return switch (period) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    static LocalDate periodEnd(RollupPeriod period, LocalDate start) {
+        return switch (period) {
+            case WEEK -> start.plusDays(6);
+            case MONTH -> start.plusMonths(1).minusDays(1);
+        };
+    }
+
+    private RollupView toView(EntryRollup r) {
+        return new RollupView(
+                r.getId().getPeriodStart().toString(),
+                r.getPointsTotal(),
+                r.getMilesDriven(),
+                r.getTrashCount(),
+                r.getRecycleCount(),
+                r.getReusableBagDays(),
+                r.getReusableBottleDays(),
+                r.getEntryDays());
+    }
+}
@@ -0,0 +1,89 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.DailyEntryRow;
+import org.greenify.greenify.model.DailyEntry;
+import org.greenify.greenify.model.enums.Category;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A compiled scoring rule set: points per unit for each category, held in a double array indexed
+ * by category ordinal. Scoring an entry is a handful of multiplications with no lookups.
+ * Fractional points round half away from zero, so -0.2 per mile costs what +0.2 would earn.
+ */
+public final class ScoringRules {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    public static final ScoringRules DEFAULT = compile(0, Map.of(
+            Category.TRANSPORT, -0.2,
+            Category.WASTE, -1.0,
+            Category.RECYCLING, 2.0,
+            Category.REUSABLE, 3.0));
+
+    private final int version;
+    private final double[] perUnit;
+
+    private ScoringRules(int version, double[] perUnit) {
+        this.version = version;
+        this.perUnit = perUnit;
+    }
+
+    /** Categories missing from {@code perUnit} score nothing. */
+    public static ScoringRules compile(int version, Map<Category, Double> perUnit) {
+        double[] weights = new double[CATEGORIES.length];
+        perUnit.forEach((c, w) -> {
+            if (w == null || !Double.isFinite(w)) {
+                throw new IllegalArgumentException("Points per unit for " + c + " must be a finite number");
+            }
+            weights[c.ordinal()] = w;
+        });
+        return new ScoringRules(version, weights);
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public Map<Category, Double> perUnit() {
+        Map<Category, Double> m = new EnumMap<>(Category.class);
+        for (Category c : CATEGORIES) m.put(c, perUnit[c.ordinal()]);
+        return m;
+    }
+
+    public int points(Category c, int quantity) {
+        double raw = quantity * perUnit[c.ordinal()];
+        return (int) (raw >= 0 ? Math.round(raw) : -Math.round(-raw));
+    }
+
+    public int score(DailyEntry e) {
+        return score(e.getMilesDriven(), e.getTrashCount(), e.getRecycleCount(), e.isReusableBag(), e.isReusableBottle());
+    }
+
+    public int score(int miles, int trash, int recycle, boolean bag, boolean bottle) {
+        int total = points(Category.TRANSPORT, miles)
+                + points(Category.WASTE, trash)
+                + points(Category.RECYCLING, recycle)
+                + points(Category.REUSABLE, reusables(bag, bottle));
+        return Math.max(0, total);
+    }
+
+    public CategoryBreakdown breakdown(DailyEntryRow r) {
+        return breakdown(r.milesDriven(), r.trashCount(), r.recycleCount(), r.reusableBag(), r.reusableBottle());
+    }
+
+    public CategoryBreakdown breakdown(int miles, int trash, int recycle, boolean bag, boolean bottle) {
+        CategoryBreakdown b = new CategoryBreakdown();
+        b.set(Category.TRANSPORT, miles, points(Category.TRANSPORT, miles));
+        b.set(Category.WASTE, trash, points(Category.WASTE, trash));
+        b.set(Category.RECYCLING, recycle, points(Category.RECYCLING, recycle));
+        int reusables = reusables(bag, bottle);
+        b.set(Category.REUSABLE, reusables, points(Category.REUSABLE, reusables));
+        return b;
+    }
+
+    private static int reusables(boolean bag, boolean bottle) {
+        return (bag ? 1 : 0) + (bottle ? 1 : 0);
+    }
+}
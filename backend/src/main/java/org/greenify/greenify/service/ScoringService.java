@@ -0,0 +1,127 @@
+package org.greenify.greenify.service;
+
+import jakarta.annotation.PostConstruct;
+import org.greenify.greenify.model.ScoringRule;
+import org.greenify.greenify.model.enums.Category;
+import org.greenify.greenify.repository.ScoringRuleRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Owns the active {@link ScoringRules}. Rules live in scoring_rule, one row per category per
+ * version; the first version is seeded from the scoring.per-unit.* properties. Publishing a new
+ * version swaps the compiled rules for new writes and re-scores historical entries in the background.
+ */
+@Service
+public class ScoringService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoringService.class);
+
+    private final ScoringRuleRepo ruleRepo;
+    private final RescoreJob rescoreJob;
+    private final long claimTimeoutMs;
+    private final Map<Category, Double> seed = new EnumMap<>(Category.class);
+    private volatile ScoringRules active = ScoringRules.DEFAULT;
+
+    public ScoringService(ScoringRuleRepo ruleRepo, RescoreJob rescoreJob,
+                          @Value("${scoring.per-unit.transport:-0.2}") double transport,
+                          @Value("${scoring.per-unit.food:0}") double food,
+                          @Value("${scoring.per-unit.waste:-1}") double waste,
+                          @Value("${scoring.per-unit.reusable:3}") double reusable,
+                          @Value("${scoring.per-unit.recycling:2}") double recycling,
+                          @Value("${scoring.rescore.claim-timeout-ms:3600000}") long claimTimeoutMs) {
+        this.ruleRepo = ruleRepo;
+        this.rescoreJob = rescoreJob;
+        this.claimTimeoutMs = claimTimeoutMs;
+        seed.put(Category.TRANSPORT, transport);
+        seed.put(Category.FOOD, food);
+        seed.put(Category.WASTE, waste);
+        seed.put(Category.REUSABLE, reusable);
+        seed.put(Category.RECYCLING, recycling);
+    }
+
+    @PostConstruct
+    public void init() {
+        Integer latest = ruleRepo.findLatestVersion();
+        boolean seeded = false;
+        if (latest == null) {
+            try {
+                latest = insert(seed).version();
+                seeded = true;
+            } catch (DataIntegrityViolationException e) {
+                // Another instance seeded v1 at the same time.
+                latest = ruleRepo.findLatestVersion();
+            }
+        }
+        active = load(latest);
+        // Entries scored under older rules (or before rules were versioned) are caught up by the one
+        // instance that claims the version; finished versions cost a single indexed update here.
+        Instant now = Instant.now();
+        if (seeded || ruleRepo.claimRescore(active.version(), now, now.minusMillis(claimTimeoutMs)) > 0) {
+            rescore(active);
+        }
+    }
+
+    public ScoringRules active() {
+        return active;
+    }
+
+    /**
+     * Stores {@code perUnit} as the version after the highest one in the database, activates it and
+     * starts the re-score. Throws IllegalStateException if another instance published the same
+     * version concurrently.
+     */
+    public synchronized CompletableFuture<Integer> publish(Map<Category, Double> perUnit) {
+        ScoringRules next;
+        try {
+            next = insert(perUnit);
+        } catch (DataIntegrityViolationException e) {
+            reloadIfChanged();
+            throw new IllegalStateException("Scoring rules were published concurrently by another instance; retry", e);
+        }
+        active = next;
+        log.info("Activated scoring rules v{}: {}", next.version(), next.perUnit());
+        return rescore(next);
+    }
+
+    // Picks up versions published by another instance.
+    @Scheduled(fixedDelayString = "${scoring.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        Integer latest = ruleRepo.findLatestVersion();
+        if (latest == null || latest <= active.version()) return;
+        active = load(latest);
+        log.info("Loaded scoring rules v{}", latest);
+    }
+
+    private ScoringRules insert(Map<Category, Double> perUnit) {
+        // Compiled first so invalid weights are rejected before anything is stored.
+        Map<Category, Double> checked = ScoringRules.compile(0, perUnit).perUnit();
+        return ScoringRules.compile(ruleRepo.insertNextVersion(checked), checked);
+    }
+
+    // Only a run that was not superseded by newer rules has brought every entry up to its version.
+    private CompletableFuture<Integer> rescore(ScoringRules rules) {
+        return rescoreJob.start(rules, () -> active.version())
+                .thenApply(n -> {
+                    if (active.version() == rules.version()) ruleRepo.markRescored(rules.version(), Instant.now());
+                    return n;
+                });
+    }
+
+    private ScoringRules load(int version) {
+        Map<Category, Double> perUnit = new EnumMap<>(Category.class);
+        for (ScoringRule r : ruleRepo.findById_Version(version)) {
+            perUnit.put(r.getId().getCategory(), r.getPointsPerUnit());
+        }
+        return ScoringRules.compile(version, perUnit);
+    }
+}
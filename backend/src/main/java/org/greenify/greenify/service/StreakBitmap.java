@@ -0,0 +1,126 @@
+package org.greenify.greenify.service;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * One bit per day (set = the day met the points goal), starting at {@link #origin()}.
+ * Bit {@code i} of word {@code j} is day {@code origin + 64*j + i}. Streak queries work a
+ * whole word at a time, so recomputing after an edit on any day is O(days / 64).
+ */
+public final class StreakBitmap {
+
+    private LocalDate origin;
+    private long[] words;
+
+    private StreakBitmap(LocalDate origin, long[] words) {
+        this.origin = origin;
+        this.words = words;
+    }
+
+    public static StreakBitmap empty(LocalDate origin) {
+        return new StreakBitmap(origin, new long[1]);
+    }
+
+    public static StreakBitmap decode(LocalDate origin, byte[] bytes) {
+        long[] words = new long[Math.max(1, bytes.length / Long.BYTES)];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(words, 0, bytes.length / Long.BYTES);
+        return new StreakBitmap(origin, words);
+    }
+
+    public byte[] encode() {
+        int used = words.length;
+        while (used > 0 && words[used - 1] == 0) used--;
+        ByteBuffer buf = ByteBuffer.allocate(used * Long.BYTES);
+        buf.asLongBuffer().put(words, 0, used);
+        return buf.array();
+    }
+
+    public LocalDate origin() {
+        return origin;
+    }
+
+    public boolean get(LocalDate day) {
+        long idx = ChronoUnit.DAYS.between(origin, day);
+        if (idx < 0 || idx >= (long) words.length * 64) return false;
+        return (words[(int) (idx >>> 6)] & (1L << idx)) != 0;
+    }
+
+    public void set(LocalDate day, boolean qualifying) {
+        long idx = ChronoUnit.DAYS.between(origin, day);
+        if (idx < 0) {
+            if (!qualifying) return;
+            // Move the origin back by whole words so existing bits keep their positions within a word.
+            int shift = (int) ((-idx + 63) >>> 6);
+            long[] grown = new long[words.length + shift];
+            System.arraycopy(words, 0, grown, shift, words.length);
+            words = grown;
+            origin = origin.minusDays(64L * shift);
+            idx += 64L * shift;
+        }
+        int w = (int) (idx >>> 6);
+        if (w >= words.length) {
+            if (!qualifying) return;
+            words = Arrays.copyOf(words, Math.max(w + 1, words.length + (words.length >> 1)));
+        }
+        if (qualifying) words[w] |= 1L << idx;
+        else words[w] &= ~(1L << idx);
+    }
+
+    /** Latest qualifying day, or null if there is none. */
+    public LocalDate lastSet() {
+        for (int j = words.length - 1; j >= 0; j--) {
+            if (words[j] != 0) {
+                return origin.plusDays(64L * j + 63 - Long.numberOfLeadingZeros(words[j]));
+            }
+        }
+        return null;
+    }
+
+    /** Length of the run of qualifying days that ends on {@code day}. */
+    public int runEndingAt(LocalDate day) {
+        if (!get(day)) return 0;
+        long idx = ChronoUnit.DAYS.between(origin, day);
+        int j = (int) (idx >>> 6);
+        int b = (int) (idx & 63);
+        // Put bit b at the top; the leading ones are the run within this word.
+        int run = Long.numberOfLeadingZeros(~(words[j] << (63 - b)));
+        if (run <= b) return run;
+        while (--j >= 0) {
+            long w = words[j];
+            if (w == -1L) {
+                run += 64;
+            } else {
+                run += Long.numberOfLeadingZeros(~w);
+                break;
+            }
+        }
+        return run;
+    }
+
+    public int longestRun() {
+        int best = 0;
+        int carry = 0;
+        for (long w : words) {
+            if (w == -1L) {
+                carry += 64;
+                continue;
+            }
+            best = Math.max(best, carry + Long.numberOfTrailingZeros(~w));
+            best = Math.max(best, longestRunInWord(w));
+            carry = Long.numberOfLeadingZeros(~w);
+        }
+        return Math.max(best, carry);
+    }
+
+    private static int longestRunInWord(long w) {
+        int n = 0;
+        while (w != 0) {
+            w &= w << 1;
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,95 @@
+package org.greenify.greenify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.greenify.greenify.config.CacheConfig;
+import org.greenify.greenify.dto.StreakView;
+import org.greenify.greenify.event.StreakChangedEvent;
+import org.greenify.greenify.event.UserDeletedEvent;
+import org.greenify.greenify.model.Streak;
+import org.greenify.greenify.repository.StreakRepo;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read side of the streak. Each user's view is built once, serialized once and cached until
+ * the pipeline commits a change to that user's streak.
+ */
+@Service
+public class StreakService {
+
+    /** A user's streak view, its version for ETags, and the JSON body the endpoint serves. */
+    public record Rendered(StreakView view, String version, byte[] json) {}
+
+    private static final int DEFAULT_GOAL_POINTS = new Streak().getGoalPoints();
+    private static final int STRIPES = 64;
+
+    private final StreakRepo streakRepo;
+    private final ObjectMapper objectMapper;
+    private final Cache cache;
+    // Bumped on every eviction; a view read from the DB is only cached if its stripe didn't move meanwhile.
+    private final AtomicLong[] epochs = new AtomicLong[STRIPES];
+
+    public StreakService(StreakRepo streakRepo, ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.streakRepo = streakRepo;
+        this.objectMapper = objectMapper;
+        this.cache = cacheManager.getCache(CacheConfig.STREAKS);
+        for (int i = 0; i < STRIPES; i++) epochs[i] = new AtomicLong();
+    }
+
+    public Rendered view(Long userId) {
+        Rendered cached = cache.get(userId, Rendered.class);
+        if (cached != null) return cached;
+
+        AtomicLong epoch = stripe(userId);
+        long seen = epoch.get();
+        Rendered loaded = load(userId);
+        if (epoch.get() == seen) {
+            cache.put(userId, loaded);
+            if (epoch.get() != seen) cache.evict(userId);
+        }
+        return loaded;
+    }
+
+    private Rendered load(Long userId) {
+        return streakRepo.findById(userId)
+                .map(s -> render(new StreakView(
+                        s.getCurrentStreak(),
+                        s.getHighestStreak(),
+                        s.getGoalPoints(),
+                        s.getLastQualifyingDate() != null ? s.getLastQualifyingDate().toString() : null
+                ), "v" + s.getVersion()))
+                .orElseGet(() -> render(new StreakView(0, 0, DEFAULT_GOAL_POINTS, null), "none"));
+    }
+
+    private Rendered render(StreakView view, String version) {
+        try {
+            return new Rendered(view, version, objectMapper.writeValueAsBytes(view));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize streak view", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onStreakChanged(StreakChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(event.userId());
+    }
+
+    private void evict(Long userId) {
+        stripe(userId).incrementAndGet();
+        cache.evict(userId);
+    }
+
+    private AtomicLong stripe(Long userId) {
+        return epochs[Math.floorMod(userId.hashCode(), STRIPES)];
+    }
+}
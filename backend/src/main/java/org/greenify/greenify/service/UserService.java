@@ -1,41 +1,73 @@
 package org.greenify.greenify.service;
 
+import org.greenify.greenify.config.CacheConfig;
+import org.greenify.greenify.dto.UserHandle;
+import org.greenify.greenify.event.UserDeletedEvent;
+import org.greenify.greenify.event.UsernameChangedEvent;
 import org.greenify.greenify.model.User;
 import org.greenify.greenify.model.UserPrincipal;
 import org.greenify.greenify.repository.UserRepo;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepo userRepo;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
+    private final PasswordEncoder encoder;
+    private final ApplicationEventPublisher events;
+    private final NameAvailability availability;
 
-    public UserService(UserRepo userRepo) {
+    public UserService(UserRepo userRepo, PasswordEncoder encoder, ApplicationEventPublisher events,
+                       NameAvailability availability) {
         this.userRepo = userRepo;
+        this.encoder = encoder;
+        this.events = events;
+        this.availability = availability;
     }
 
     public User registerUser(User user) {
-        if (userRepo.existsByUsername(user.getUsername())) {
+        if (existsByUsername(user.getUsername())) {
             throw new IllegalArgumentException("Username already taken");
         }
-        if (userRepo.existsByEmail(user.getEmail())) {
+        if (existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("Email already in use");
         }
         user.setPassword(encoder.encode(user.getPassword()));
-        return userRepo.save(user);
+        User saved;
+        try {
+            saved = userRepo.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Taken on another instance since this one's filters were last rebuilt.
+            throw new IllegalArgumentException("Username or email already taken");
+        }
+        availability.registered(saved.getUsername(), saved.getEmail());
+        return saved;
     }
 
-    public User getByUserId(Long userId) {
-        return userRepo.findById(userId).orElseThrow(() ->
+    // Cached as an immutable projection: no password hash in the cache, and nothing a caller can mutate.
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
+    public UserHandle getByUserId(Long userId) {
+        return userRepo.findHandleById(userId).orElseThrow(() ->
                 new UsernameNotFoundException("User id " + userId + " not found"));
     }
 
+    // Uninitialized proxy for setting foreign keys; issues no SELECT on users.
+    public User getReference(Long userId) {
+        return userRepo.getReferenceById(userId);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepo.findByUsername(username);
@@ -43,32 +75,60 @@ public class UserService implements UserDetailsService {
         return new UserPrincipal(user);
     }
 
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#details.id")
+    public UserDetails updatePassword(UserDetails details, String newEncodedPassword) {
+        User user = ((UserPrincipal) details).getUser();
+        userRepo.updatePassword(user.getId(), newEncodedPassword);
+        user.setPassword(newEncodedPassword);
+        return details;
+    }
+
+    // Only flags the account; AccountPurgeJob removes its data afterwards.
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void deleteUser(Long userId) {
-        if (!userRepo.existsById(userId)) {
+        if (userRepo.disable(userId, Instant.now()) == 0) {
             throw new UsernameNotFoundException("User id " + userId + " not found");
         }
-        userRepo.deleteById(userId);
+        events.publishEvent(new UserDeletedEvent(userId));
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void changePassword(Long userId, String newPassword) {
-        User user = getByUserId(userId);
-        user.setPassword(encoder.encode(newPassword));
-        userRepo.save(user);
+        if (userRepo.updatePassword(userId, encoder.encode(newPassword)) == 0) {
+            throw new UsernameNotFoundException("User id " + userId + " not found");
+        }
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void changeUsername(Long userId, String newUsername) {
-        if (userRepo.existsByUsername(newUsername)) {
+        if (existsByUsername(newUsername)) {
             throw new IllegalArgumentException("Username already taken");
         }
-        User user = getByUserId(userId);
+        User user = userRepo.findById(userId).orElseThrow(() ->
+                new UsernameNotFoundException("User id " + userId + " not found"));
+        String oldUsername = user.getUsername();
         user.setUsername(newUsername);
-        userRepo.save(user);
+        try {
+            // Flushed here so a name taken on another instance fails as "taken", not at commit.
+            userRepo.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Username already taken");
+        }
+        events.publishEvent(new UsernameChangedEvent(userId, oldUsername, newUsername));
+    }
+
+    // The filter answers most lookups for unused names; only possible hits reach the unique index.
+    public boolean existsByUsername(String username) {
+        return availability.usernameMayBeTaken(username) && userRepo.existsByUsername(username);
     }
 
-    public boolean existsByUsername(String username) { return userRepo.existsByUsername(username); }
-    public boolean existsByEmail(String email) { return userRepo.existsByEmail(email); }
+    public boolean existsByEmail(String email) {
+        return availability.emailMayBeTaken(email) && userRepo.existsByEmail(email);
+    }
 
 }
@@ -0,0 +1,85 @@
+-- The schema as Hibernate's ddl-auto=update left it before migrations took over.
+-- Every statement is conditional, so this runs on an empty database and is a no-op
+-- (apart from filling in columns an older build never added) on an existing one.
+
+create sequence if not exists daily_entry_seq start with 1 increment by 50;
+create sequence if not exists entry_change_seq start with 1 increment by 50;
+
+create table if not exists users (
+    user_id     bigint generated by default as identity primary key,
+    username    varchar(255) not null unique,
+    password    varchar(255) not null,
+    email       varchar(255) not null unique,
+    timezone    varchar(255),
+    created_at  timestamp(6) with time zone not null
+);
+alter table users add column if not exists disabled boolean not null default false;
+alter table users add column if not exists disabled_at timestamp(6) with time zone;
+
+create table if not exists daily_entry (
+    id               bigint primary key,
+    user_id          bigint references users (user_id),
+    date             date,
+    miles_driven     integer not null,
+    trash_count      integer not null,
+    recycle_count    integer not null,
+    reusable_bag     boolean not null,
+    reusable_bottle  boolean not null,
+    points_total     integer not null
+);
+alter table daily_entry add column if not exists previous_points integer not null default 0;
+alter table daily_entry add column if not exists version bigint not null default 0;
+alter table daily_entry add column if not exists scoring_version integer not null default 0;
+create unique index if not exists ux_daily_entry_user_date on daily_entry (user_id, date);
+
+create table if not exists streak (
+    user_id               bigint primary key references users (user_id),
+    current_streak        integer not null,
+    highest_streak        integer not null,
+    last_qualifying_date  date,
+    goal_points           integer not null
+);
+alter table streak add column if not exists bitmap_origin date;
+alter table streak add column if not exists qualifying_days bytea;
+alter table streak add column if not exists last_entry_date date;
+alter table streak add column if not exists version bigint not null default 0;
+
+create table if not exists entry_rollup (
+    user_id               bigint not null,
+    period                varchar(8) not null,
+    period_start          date not null,
+    points_total          integer not null,
+    miles_driven          integer not null,
+    trash_count           integer not null,
+    recycle_count         integer not null,
+    reusable_bag_days     integer not null,
+    reusable_bottle_days  integer not null,
+    entry_days            integer not null,
+    primary key (user_id, period, period_start)
+);
+
+create table if not exists entry_change (
+    id          bigint primary key,
+    user_id     bigint not null,
+    date        date not null,
+    created_at  timestamp(6) with time zone not null
+);
+create index if not exists ix_entry_change_user on entry_change (user_id);
+
+create table if not exists category_activity (
+    user_id   bigint not null,
+    date      date not null,
+    category  varchar(16) not null,
+    unit      varchar(8) not null,
+    quantity  integer not null,
+    points    integer not null,
+    primary key (user_id, date, category)
+);
+
+create table if not exists scoring_rule (
+    version          integer not null,
+    category         varchar(16) not null,
+    points_per_unit  float(53) not null,
+    created_at       timestamp(6) with time zone not null,
+    primary key (version, category)
+);
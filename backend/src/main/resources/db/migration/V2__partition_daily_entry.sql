@@ -0,0 +1,87 @@
+-- Partition daily_entry by month. Reads and writes almost all fall in the last few weeks, so
+-- they now touch one or two small partitions, vacuum works a month at a time, and old months
+-- can be archived by dropping a partition (see EntryArchive). Postgres needs the partition key
+-- in every unique constraint, so the primary key becomes (id, date); ids still come from
+-- daily_entry_seq and are unique on their own.
+
+alter table daily_entry rename to daily_entry_unpartitioned;
+alter index if exists daily_entry_pkey rename to daily_entry_unpartitioned_pkey;
+alter index if exists ux_daily_entry_user_date rename to ux_daily_entry_unpartitioned_user_date;
+
+create table daily_entry (
+    id               bigint not null,
+    user_id          bigint not null references users (user_id),
+    date             date not null,
+    miles_driven     integer not null default 0,
+    trash_count      integer not null default 0,
+    recycle_count    integer not null default 0,
+    reusable_bag     boolean not null default false,
+    reusable_bottle  boolean not null default false,
+    points_total     integer not null default 0,
+    previous_points  integer not null default 0,
+    version          bigint not null default 0,
+    scoring_version  integer not null default 0,
+    primary key (id, date)
+) partition by range (date);
+
+create unique index ux_daily_entry_user_date on daily_entry (user_id, date);
+
+-- Catches dates outside every monthly partition; EntryArchive moves them out when it adds one.
+create table daily_entry_default partition of daily_entry default;
+
+-- A partition for every month that has entries, through three months ahead.
+do $$
+declare
+    m date;
+begin
+    for m in
+        select generate_series(
+                   date_trunc('month', coalesce((select min(date) from daily_entry_unpartitioned), current_date)),
+                   date_trunc('month', current_date) + interval '3 months',
+                   interval '1 month')::date
+    loop
+        execute format('create table %I partition of daily_entry for values from (%L) to (%L)',
+                       'daily_entry_' || to_char(m, '"y"YYYY"m"MM'), m, (m + interval '1 month')::date);
+    end loop;
+end $$;
+
+-- Rows without a user or date were unreachable through the API.
+insert into daily_entry (id, user_id, date, miles_driven, trash_count, recycle_count, reusable_bag,
+                         reusable_bottle, points_total, previous_points, version, scoring_version)
+select id, user_id, date, miles_driven, trash_count, recycle_count, reusable_bag,
+       reusable_bottle, points_total, previous_points, version, scoring_version
+from daily_entry_unpartitioned
+where user_id is not null and date is not null;
+
+-- Older builds generated ids without the sequence; keep it ahead of every existing id.
+select setval('daily_entry_seq',
+              greatest((select last_value from daily_entry_seq),
+                       (select coalesce(max(id), 0) + 50 from daily_entry_unpartitioned)));
+
+drop table daily_entry_unpartitioned;
+
+-- Months past the retention window, compacted to one row per user per month: element i of
+-- each array is the entry for day days[i]. Rollups for these months stay in entry_rollup.
+create table daily_entry_archive (
+    user_id          bigint not null references users (user_id),
+    month            date not null,
+    days             smallint[] not null,
+    miles_driven     integer[] not null,
+    trash_count      integer[] not null,
+    recycle_count    integer[] not null,
+    reusable_bag     boolean[] not null,
+    reusable_bottle  boolean[] not null,
+    points_total     integer[] not null,
+    primary key (user_id, month)
+);
+
+-- Archived entries as ordinary rows, for rollup recomputes and exports.
+create view daily_entry_archived as
+select a.user_id,
+       (a.month + (d.day - 1))::date as date,
+       d.miles_driven, d.trash_count, d.recycle_count,
+       d.reusable_bag, d.reusable_bottle, d.points_total
+from daily_entry_archive a
+cross join lateral unnest(a.days, a.miles_driven, a.trash_count, a.recycle_count,
+                          a.reusable_bag, a.reusable_bottle, a.points_total)
+    as d(day, miles_driven, trash_count, recycle_count, reusable_bag, reusable_bottle, points_total);
@@ -0,0 +1,4 @@
+-- One instance claims the re-score of a rule version, and its completion is recorded, so a
+-- booting instance only catches up versions that were never fully re-scored.
+alter table scoring_rule add column if not exists rescore_claimed_at timestamp(6) with time zone;
+alter table scoring_rule add column if not exists rescored_at timestamp(6) with time zone;
@@ -0,0 +1,6 @@
+-- One-off fill of category_activity for entries written before it existed. Each entry is queued
+-- through entry_change; EntryChangePipeline picks the rows up at start and writes their categories.
+insert into entry_change (id, user_id, date, created_at)
+select nextval('entry_change_seq'), user_id, date, now()
+from daily_entry
+where not exists (select 1 from category_activity);
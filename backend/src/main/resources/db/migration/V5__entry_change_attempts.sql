@@ -0,0 +1,5 @@
+-- Failed pipeline runs are counted per change; a change that keeps failing is parked
+-- (kept, but no longer retried) instead of being retried on every sweep.
+alter table entry_change add column if not exists attempts integer not null default 0;
+alter table entry_change add column if not exists retry_after timestamp(6) with time zone;
+alter table entry_change add column if not exists parked_at timestamp(6) with time zone;
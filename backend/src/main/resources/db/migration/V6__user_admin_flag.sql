@@ -0,0 +1,6 @@
+-- Admin rights are stored on the user row instead of being matched by username at request time,
+-- so renaming an account to a configured name no longer grants them. Accounts that already exist
+-- under a name in ADMIN_USERNAMES keep their rights; names nobody has registered are not reserved.
+alter table users add column if not exists admin boolean not null default false;
+update users set admin = true
+where username <> '' and username = any(regexp_split_to_array('${adminUsernames}', '\s*,\s*'));
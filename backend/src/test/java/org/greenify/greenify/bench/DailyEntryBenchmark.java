@@ -0,0 +1,69 @@
+package org.greenify.greenify.bench;
+
+import org.greenify.greenify.dto.DailyEntryRow;
+import org.greenify.greenify.model.DailyEntry;
+import org.greenify.greenify.model.Streak;
+import org.greenify.greenify.service.EntryChangeProcessor;
+import org.greenify.greenify.service.ScoringRules;
+import org.greenify.greenify.service.StreakBitmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DailyEntryBenchmark {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2023, 1, 1);
+    private static final int HISTORY_DAYS = 3 * 365;
+
+    private DailyEntry entry;
+    private StreakBitmap history;
+    private Streak streak;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        entry = new DailyEntry();
+        entry.setMilesDriven(12);
+        entry.setTrashCount(3);
+        entry.setRecycleCount(5);
+        entry.setReusableBag(true);
+        random = new SplittableRandom(7);
+        history = StreakBitmap.empty(ORIGIN);
+        for (int d = 0; d < HISTORY_DAYS; d++) {
+            history.set(ORIGIN.plusDays(d), random.nextInt(4) != 0);
+        }
+        streak = new Streak();
+        streak.setLastEntryDate(ORIGIN.plusDays(HISTORY_DAYS - 1));
+        EntryChangeProcessor.updateStreak(streak, StreakBitmap.decode(history.origin(), history.encode()), List.of());
+    }
+
+    @Benchmark
+    public int calcPoints() {
+        return ScoringRules.DEFAULT.score(entry);
+    }
+
+    // EntryChangeProcessor's streak step for one changed day anywhere in three years of history:
+    // decode the stored bitmap, run the production update (mark, recompute, re-encode). Only the DB calls are left out.
+    @Benchmark
+    public int updateStreak() {
+        LocalDate day = ORIGIN.plusDays(random.nextInt(HISTORY_DAYS));
+        int points = random.nextBoolean() ? streak.getGoalPoints() : 0;
+        StreakBitmap bits = StreakBitmap.decode(streak.getBitmapOrigin(), streak.getQualifyingDays());
+        EntryChangeProcessor.updateStreak(streak, bits, List.of(new DailyEntryRow(day, 0, 0, 0, false, false, points)));
+        return streak.getCurrentStreak() + streak.getHighestStreak();
+    }
+
+    @Benchmark
+    public byte[] streakBitmapRoundTrip() {
+        return StreakBitmap.decode(history.origin(), history.encode()).encode();
+    }
+}
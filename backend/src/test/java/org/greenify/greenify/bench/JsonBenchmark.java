@@ -0,0 +1,48 @@
+package org.greenify.greenify.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.greenify.greenify.dto.DailyEntryPageDTO;
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.dto.DailyEntryViewDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private DailyEntryViewDTO view;
+    private DailyEntryPageDTO month;
+
+    @Setup
+    public void setUp() {
+        view = view(LocalDate.of(2025, 3, 1));
+        List<DailyEntryViewDTO> days = new ArrayList<>();
+        for (int d = 0; d < 31; d++) days.add(view(LocalDate.of(2025, 3, 1).plusDays(d)));
+        month = new DailyEntryPageDTO(days, 0, false);
+    }
+
+    @Benchmark
+    public byte[] serializeDailyEntryView() throws Exception {
+        return mapper.writeValueAsBytes(view);
+    }
+
+    @Benchmark
+    public byte[] serializeMonthPage() throws Exception {
+        return mapper.writeValueAsBytes(month);
+    }
+
+    private static DailyEntryViewDTO view(LocalDate date) {
+        DailyEntryUpsertDTO raw = new DailyEntryUpsertDTO(date.toString(), 12, 3, 5, true, false);
+        return new DailyEntryViewDTO(date.toString(), 8, raw);
+    }
+}
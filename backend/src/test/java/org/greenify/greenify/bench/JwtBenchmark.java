@@ -0,0 +1,46 @@
+package org.greenify.greenify.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.greenify.greenify.service.JWTKeyRing;
+import org.greenify.greenify.service.JWTService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JWTService cached;
+    private JWTService uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JWTKeyRing ring = new JWTKeyRing("");
+        cached = new JWTService(ring, 10_000, new SimpleMeterRegistry());
+        uncached = new JWTService(ring, 0, new SimpleMeterRegistry());
+        token = cached.generateToken(42L, "bench-user");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(42L, "bench-user");
+    }
+
+    @Benchmark
+    public Optional<JWTService.VerifiedToken> verifyCacheHit() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public Optional<JWTService.VerifiedToken> verifyFullParse() {
+        return uncached.verify(token);
+    }
+}
@@ -0,0 +1,51 @@
+package org.greenify.greenify.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.greenify.greenify.config.JWTFilter;
+import org.greenify.greenify.repository.UserRepo;
+import org.greenify.greenify.service.DisabledUsers;
+import org.greenify.greenify.service.JWTKeyRing;
+import org.greenify.greenify.service.JWTService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private JWTFilter filter;
+    private String header;
+
+    @Setup
+    public void setUp() {
+        JWTService jwt = new JWTService(new JWTKeyRing(""), 10_000, new SimpleMeterRegistry());
+        // The active check is answered from its cache after the first call; that lookup is the per-request cost being measured.
+        UserRepo users = Mockito.mock(UserRepo.class);
+        Mockito.when(users.existsByIdAndDisabledFalse(42L)).thenReturn(true);
+        filter = new JWTFilter(jwt, new DisabledUsers(users, Duration.ofMinutes(10), 1_000));
+        header = "Bearer " + jwt.generateToken(42L, "bench-user");
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/streak");
+        request.addHeader("Authorization", header);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.greenify.greenify.config;
+
+import org.greenify.greenify.dto.Stamped;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    private static final String KEY = ETags.streakKey(1L);
+
+    private final ETags etags = new ETags(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+    private String version = "v1";
+
+    @Test
+    void firstReadLoadsAndReturnsTag() {
+        ResponseEntity<String> r = etags.conditional(get(null), KEY, this::load);
+
+        assertThat(r.getBody()).isEqualTo("body-v1");
+        assertThat(r.getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void matchingTagIsAnsweredWithoutLoading() {
+        etags.conditional(get(null), KEY, this::load);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<String> r = etags.conditional(get("\"v1\"", response), KEY, this::load);
+
+        assertThat(r).isNull();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidatedTagIsReloaded() {
+        etags.conditional(get(null), KEY, this::load);
+        version = "v2";
+        etags.invalidate(KEY);
+
+        ResponseEntity<String> r = etags.conditional(get("\"v1\""), KEY, this::load);
+
+        assertThat(r.getBody()).isEqualTo("body-v2");
+        assertThat(r.getHeaders().getETag()).isEqualTo("\"v2\"");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void tagLoadedAcrossAnInvalidationIsNotCached() {
+        etags.conditional(get(null), KEY, () -> {
+            Stamped<String> stale = load();
+            etags.invalidate(KEY);
+            return stale;
+        });
+
+        etags.conditional(get("\"v1\""), KEY, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Stamped<String> load() {
+        loads.incrementAndGet();
+        return new Stamped<>("body-" + version, version);
+    }
+
+    private static ServletWebRequest get(String ifNoneMatch) {
+        return get(ifNoneMatch, new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest get(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/streak");
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
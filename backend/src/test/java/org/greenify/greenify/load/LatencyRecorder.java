@@ -0,0 +1,49 @@
+package org.greenify.greenify.load;
+
+import java.util.Arrays;
+
+final class LatencyRecorder {
+
+    record Stats(String endpoint, long count, long errors, double throughputPerSec,
+                 double p50Ms, double p99Ms, double p999Ms, double maxMs) {}
+
+    private final String endpoint;
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private long firstStart = Long.MAX_VALUE;
+    private long lastEnd = Long.MIN_VALUE;
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long startNanos, long endNanos, boolean ok) {
+        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+        samples[count++] = endNanos - startNanos;
+        if (!ok) errors++;
+        firstStart = Math.min(firstStart, startNanos);
+        lastEnd = Math.max(lastEnd, endNanos);
+    }
+
+    synchronized Stats stats() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double seconds = count == 0 ? 0 : (lastEnd - firstStart) / 1e9;
+        return new Stats(
+                endpoint,
+                count,
+                errors,
+                seconds > 0 ? count / seconds : 0,
+                percentileMs(sorted, 0.50),
+                percentileMs(sorted, 0.99),
+                percentileMs(sorted, 0.999),
+                count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    private static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,134 @@
+package org.greenify.greenify.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Replays register, then login -> upsert a week -> streak -> history per user, with at most
+ * {@code concurrency} users in flight. Each user runs on its own virtual thread.
+ */
+final class LoadDriver {
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final URI base;
+    private final int concurrency;
+
+    LoadDriver(URI base, int concurrency) {
+        this.base = base;
+        this.concurrency = concurrency;
+    }
+
+    List<LatencyRecorder.Stats> run(int users, int days) throws InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        forEachUser(users, i -> register(runId, i));
+        forEachUser(users, i -> session(runId, i, days));
+        List<LatencyRecorder.Stats> out = new ArrayList<>();
+        recorders.values().forEach(r -> out.add(r.stats()));
+        out.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return out;
+    }
+
+    private interface UserTask {
+        void run(int userIndex) throws Exception;
+    }
+
+    private void forEachUser(int users, UserTask task) throws InterruptedException {
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                permits.acquire();
+                int userIndex = i;
+                executor.submit(() -> {
+                    try {
+                        task.run(userIndex);
+                    } catch (Exception e) {
+                        // Failures are already counted per endpoint; keep going with the next user.
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void register(String runId, int i) throws Exception {
+        String username = username(runId, i);
+        send("POST /api/user/register", post("/api/user/register", null, Map.of(
+                "username", username,
+                "email", username + "@load.test",
+                "password", password(i))));
+    }
+
+    private void session(String runId, int i, int days) throws Exception {
+        HttpResponse<String> login = send("POST /api/user/login", post("/api/user/login", null, Map.of(
+                "username", username(runId, i),
+                "password", password(i))));
+        if (login.statusCode() != 200) return;
+        String token = login.body();
+
+        LocalDate today = LocalDate.now();
+        for (int d = days - 1; d >= 0; d--) {
+            LocalDate date = today.minusDays(d);
+            send("POST /api/daily-entry", post("/api/daily-entry", token, Map.of(
+                    "date", date.toString(),
+                    "milesDriven", (i + d) % 30,
+                    "trashCount", d % 4,
+                    "recycleCount", (i * 7 + d) % 9,
+                    "reusableBag", d % 2 == 0,
+                    "reusableBottle", i % 3 == 0)));
+        }
+        send("GET /api/streak", get("/api/streak", token));
+        send("GET /api/daily-entry?from&to", get("/api/daily-entry?from=" + today.minusDays(days - 1) + "&to=" + today, token));
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws Exception {
+        LatencyRecorder recorder = recorders.computeIfAbsent(endpoint, LatencyRecorder::new);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(start, System.nanoTime(), response.statusCode() < 400);
+            return response;
+        } catch (Exception e) {
+            recorder.record(start, System.nanoTime(), false);
+            throw e;
+        }
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        return b.build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static String username(String runId, int i) {
+        return "load-" + runId + "-" + i;
+    }
+
+    private static String password(int i) {
+        return "pw-" + i + "-load";
+    }
+}
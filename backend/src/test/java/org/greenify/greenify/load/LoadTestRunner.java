@@ -0,0 +1,83 @@
+package org.greenify.greenify.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.greenify.greenify.GreenifyApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the backend against a throwaway embedded Postgres, drives it with {@link LoadDriver}
+ * and writes per-endpoint latency percentiles and throughput as JSON. With
+ * {@code load.modes=platform,virtual} the same workload runs once per thread mode, each on a
+ * fresh database, so the report compares them directly.
+ * Run with {@code mvn -Pload verify -DskipTests}; see the load profile in pom.xml for knobs.
+ */
+public final class LoadTestRunner {
+
+    record LoadReport(String mode, int users, int concurrency, int daysPerUser, double wallSeconds,
+                      List<LatencyRecorder.Stats> endpoints) {}
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("load.users", 1000);
+        int concurrency = Integer.getInteger("load.concurrency", 32);
+        int days = Integer.getInteger("load.days", 7);
+        int bcryptStrength = Integer.getInteger("load.bcrypt-strength", 10);
+        List<String> modes = List.of(System.getProperty("load.modes", "platform").split(","));
+        Path reportFile = Path.of(System.getProperty("load.report", "target/load-report.json"));
+
+        List<LoadReport> reports = new ArrayList<>();
+        for (String mode : modes) {
+            reports.add(run(mode.trim(), users, concurrency, days, bcryptStrength));
+        }
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), reports);
+        for (LoadReport r : reports) {
+            System.out.printf("== %s threads, %.1fs wall%n", r.mode(), r.wallSeconds());
+            r.endpoints().forEach(s -> System.out.printf("%-28s n=%-7d err=%-5d %8.1f req/s  p50=%7.2fms  p99=%7.2fms  p999=%7.2fms%n",
+                    s.endpoint(), s.count(), s.errors(), s.throughputPerSec(), s.p50Ms(), s.p99Ms(), s.p999Ms()));
+        }
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static LoadReport run(String mode, int users, int concurrency, int days, int bcryptStrength) throws Exception {
+        boolean virtual = switch (mode) {
+            case "virtual" -> true;
+            case "platform" -> false;
+            default -> throw new IllegalArgumentException("load.modes entries must be platform or virtual: " + mode);
+        };
+        try (EmbeddedPostgres pg = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext ctx = new SpringApplicationBuilder(GreenifyApplication.class).run(
+                    "--server.port=0",
+                    "--spring.profiles.active=" + (virtual ? "vthreads" : "default"),
+                    "--spring.datasource.url=" + pg.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.org.springframework.security=WARN",
+                    "--security.password.bcrypt-strength=" + bcryptStrength,
+                    "--spring.ai.openai.api-key=unused");
+            try {
+                int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+                LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), concurrency);
+
+                long start = System.nanoTime();
+                List<LatencyRecorder.Stats> stats = driver.run(users, days);
+                double wall = (System.nanoTime() - start) / 1e9;
+                return new LoadReport(mode, users, concurrency, days, wall, stats);
+            } finally {
+                ctx.close();
+            }
+        }
+    }
+}
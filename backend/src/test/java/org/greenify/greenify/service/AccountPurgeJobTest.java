@@ -0,0 +1,87 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.model.User;
+import org.greenify.greenify.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "user.purge.chunk-size=3",
+        "user.purge.pause-ms=0",
+        "user.purge.user-row-delay-ms=0",
+        "user.purge.sweep-ms=600000",
+        "entry.pipeline.coalesce-ms=600000",
+        "entry.pipeline.sweep-ms=600000"
+})
+class AccountPurgeJobTest {
+
+    @Autowired UserService users;
+    @Autowired DailyEntryService entries;
+    @Autowired EntryChangePipeline pipeline;
+    @Autowired AccountPurgeJob purgeJob;
+    @Autowired DisabledUsers disabledUsers;
+    @Autowired UserRepo userRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepo, "purge");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.delete(jdbc, userId);
+    }
+
+    @Test
+    void deleteDisablesAtOnceAndPurgeRemovesEveryRow() throws Exception {
+        List<DailyEntryUpsertDTO> days = new ArrayList<>();
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 10; i++) {
+            days.add(new DailyEntryUpsertDTO(start.plusDays(i).toString(), 0, 0, 6, false, false));
+        }
+        entries.upsertBatch(userId, days);
+        pipeline.flush(userId);
+
+        users.deleteUser(userId);
+
+        assertThat(disabledUsers.contains(userId)).isTrue();
+        assertThat(userRepo.findById(userId)).get().matches(User::isDisabled);
+
+        purgeJob.purge(userId);
+
+        for (String table : List.of("daily_entry", "streak", "entry_rollup", "category_activity", "entry_change", "users")) {
+            assertThat(count(table)).as(table).isZero();
+        }
+        // The purge queued by the deletion may be the one that removed the users row; let it finish.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (disabledUsers.contains(userId) && System.currentTimeMillis() < deadline) Thread.sleep(20);
+        assertThat(disabledUsers.contains(userId)).isFalse();
+    }
+
+    private int count(String table) {
+        return jdbc.queryForObject("select count(*) from " + table + " where user_id = ?", Integer.class, userId);
+    }
+
+    @Test
+    void accountDisabledOnAnotherInstanceStopsAuthenticatingBeforeTheRefresh() {
+        // As another instance's delete would leave it: disabled in the database, unknown here.
+        jdbc.update("update users set disabled = true where user_id = ?", userId);
+
+        assertThat(disabledUsers.contains(userId)).isFalse();
+        assertThat(disabledUsers.isDisabled(userId)).isTrue();
+    }
+}
@@ -0,0 +1,37 @@
+package org.greenify.greenify.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedString() {
+        BloomFilter f = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) f.put("user" + i);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(f.mightContain("user" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter f = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) f.put("user" + i);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (f.mightContain("other" + i)) falsePositives++;
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void rejectsBadSizing() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
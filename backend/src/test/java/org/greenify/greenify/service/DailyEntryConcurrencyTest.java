@@ -0,0 +1,122 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.dto.StreakView;
+import org.greenify.greenify.model.enums.LeaderboardMetric;
+import org.greenify.greenify.model.enums.LeaderboardWindow;
+import org.greenify.greenify.repository.EntryChangeRepo;
+import org.greenify.greenify.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Background runs are pushed out; the tests drive the pipeline themselves to force overlap.
+@SpringBootTest(properties = {
+        "entry.pipeline.coalesce-ms=600000",
+        "entry.pipeline.sweep-ms=600000"
+})
+class DailyEntryConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired DailyEntryService entries;
+    @Autowired EntryChangePipeline pipeline;
+    @Autowired StreakService streaks;
+    @Autowired LeaderboardService leaderboard;
+    @Autowired EntryChangeRepo changeRepo;
+    @Autowired UserRepo userRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    private Long userId;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepo, "conc");
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        TestUsers.delete(jdbc, userId);
+    }
+
+    @Test
+    void concurrentWritesToOneDayLeaveOneRowAndExactPointDeltas() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int recycle = t + 1;
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10; i++) {
+                    entries.upsert(userId, entry("2025-04-01", recycle + i));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : done) f.get();
+
+        Integer rows = jdbc.queryForObject(
+                "select count(*) from daily_entry where user_id = ? and date = ?", Integer.class,
+                userId, LocalDate.parse("2025-04-01"));
+        Integer points = jdbc.queryForObject(
+                "select points_total from daily_entry where user_id = ? and date = ?", Integer.class,
+                userId, LocalDate.parse("2025-04-01"));
+        assertThat(rows).isEqualTo(1);
+        // The board only ever sees deltas, so it matches the row only if no previous value was stale.
+        assertThat(leaderboard.view(LeaderboardMetric.POINTS, LeaderboardWindow.ALL, 1, userId).me().score())
+                .isEqualTo(points.longValue());
+    }
+
+    @Test
+    void overlappingPipelineRunsDoNotLoseStreakDays() throws Exception {
+        int days = THREADS * 5;
+        LocalDate first = LocalDate.parse("2025-05-01");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int d = offset; d < days; d += THREADS) {
+                    entries.upsert(userId, entry(first.plusDays(d).toString(), 7));
+                    // Bypasses the per-user stripe lock, as a second instance would.
+                    try {
+                        pipeline.applyWithRetry(userId);
+                    } catch (RuntimeException ignored) {
+                        // Out of retries; the changes stay pending for the final run below.
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : done) f.get();
+        pipeline.applyWithRetry(userId);
+
+        StreakView s = streaks.view(userId).view();
+        assertThat(s.current()).isEqualTo(days);
+        assertThat(s.longest()).isEqualTo(days);
+        assertThat(changeRepo.existsByUserId(userId)).isFalse();
+    }
+
+    private static DailyEntryUpsertDTO entry(String date, int recycleCount) {
+        return new DailyEntryUpsertDTO(date, 0, 0, recycleCount, false, false);
+    }
+}
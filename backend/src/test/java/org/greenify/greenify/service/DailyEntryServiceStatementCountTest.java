@@ -0,0 +1,77 @@
+package org.greenify.greenify.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.model.User;
+import org.greenify.greenify.repository.UserRepo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Pipeline timers are pushed out so background streak/rollup work can't land in the counts.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "entry.pipeline.coalesce-ms=600000",
+        "entry.pipeline.sweep-ms=600000"
+})
+class DailyEntryServiceStatementCountTest {
+
+    // insert ... on conflict for the entry, insert entry_change
+    private static final long STATEMENTS_PER_UPSERT = 2;
+
+    @Autowired DailyEntryService service;
+    @Autowired EntryChangePipeline pipeline;
+    @Autowired UserRepo userRepo;
+    @Autowired EntityManagerFactory emf;
+    @Autowired JdbcTemplate jdbc;
+
+    private Long userId;
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepo, "stmt");
+
+        // First upsert creates the streak row and allocates the id pool; not the steady state.
+        service.upsert(userId, entry("2025-03-01", 4));
+        pipeline.flush(userId);
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.delete(jdbc, userId);
+    }
+
+    @Test
+    void updatingExistingEntryDoesNotTouchUsers() {
+        service.upsert(userId, entry("2025-03-01", 7));
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(STATEMENTS_PER_UPSERT);
+        assertThat(stats.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(stats.getEntityStatistics(User.class.getName()).getFetchCount()).isZero();
+    }
+
+    @Test
+    void insertingNewEntryDoesNotTouchUsers() {
+        service.upsert(userId, entry("2025-03-02", 7));
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(STATEMENTS_PER_UPSERT);
+        assertThat(stats.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(stats.getEntityStatistics(User.class.getName()).getFetchCount()).isZero();
+    }
+
+    private static DailyEntryUpsertDTO entry(String date, int recycleCount) {
+        return new DailyEntryUpsertDTO(date, 0, 0, recycleCount, false, false);
+    }
+}
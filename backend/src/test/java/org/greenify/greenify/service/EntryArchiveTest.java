@@ -0,0 +1,92 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.dto.DailyEntryViewDTO;
+import org.greenify.greenify.model.enums.ExportFormat;
+import org.greenify.greenify.repository.DailyEntryRepo;
+import org.greenify.greenify.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "entry.archive.retention-months=24",
+        "entry.partition.initial-delay-ms=600000",
+        "entry.pipeline.coalesce-ms=600000",
+        "entry.pipeline.sweep-ms=600000"
+})
+class EntryArchiveTest {
+
+    // Far enough back that no other test or real data shares the partition this test archives.
+    private static final LocalDate OLD_MONTH = LocalDate.of(1999, 3, 1);
+
+    @Autowired DailyEntryRepo dailyRepo;
+    @Autowired DailyEntryService entries;
+    @Autowired ExportService exports;
+    @Autowired UserRepo userRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepo, "archive");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.delete(jdbc, userId);
+    }
+
+    @Test
+    void oldMonthsAreCompactedIntoTheArchiveAndBecomeReadOnly() throws Exception {
+        // Written directly: the API no longer accepts dates this old. No partition exists for the
+        // month, so the rows land in the default partition.
+        insert(OLD_MONTH.plusDays(4), 7);
+        insert(OLD_MONTH.plusDays(1), 3);
+
+        if (!dailyRepo.findPartitionMonths().contains(OLD_MONTH)) {
+            assertThat(dailyRepo.createPartition(OLD_MONTH)).isTrue();
+        }
+        assertThat(dailyRepo.archivePartition(OLD_MONTH)).isTrue();
+
+        assertThat(jdbc.queryForObject("select count(*) from daily_entry where user_id = ?", Integer.class, userId))
+                .isZero();
+        assertThat(jdbc.queryForList("select date from daily_entry_archived where user_id = ? order by date",
+                LocalDate.class, userId))
+                .containsExactly(OLD_MONTH.plusDays(1), OLD_MONTH.plusDays(4));
+        assertThat(jdbc.queryForObject("""
+                        select points_total from entry_rollup
+                        where user_id = ? and period = 'MONTH' and period_start = ?
+                        """, Integer.class, userId, OLD_MONTH))
+                .isEqualTo(10);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exports.export(userId, ExportFormat.CSV, out);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().skip(1).toList())
+                .containsExactly(userId + ",1999-03-02,0,0,0,false,false,3", userId + ",1999-03-05,0,0,0,false,false,7");
+
+        assertThat(entries.getForDate(userId, OLD_MONTH.plusDays(4)).body().pointsTotal()).isEqualTo(7);
+        assertThat(entries.getRange(userId, OLD_MONTH, OLD_MONTH.plusMonths(1), 0, 1).entries())
+                .extracting(DailyEntryViewDTO::date)
+                .containsExactly("1999-03-02");
+
+        assertThatThrownBy(() -> entries.upsert(userId, new DailyEntryUpsertDTO("1999-03-10", 0, 0, 1, false, false)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void insert(LocalDate date, int points) {
+        jdbc.update("insert into daily_entry (id, user_id, date, points_total) values (nextval('daily_entry_seq'), ?, ?, ?)",
+                userId, date, points);
+    }
+}
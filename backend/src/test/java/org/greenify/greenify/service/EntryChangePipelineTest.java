@@ -0,0 +1,109 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.CategoryTotalView;
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.dto.RollupView;
+import org.greenify.greenify.dto.StreakView;
+import org.greenify.greenify.model.EntryChange;
+import org.greenify.greenify.model.enums.Category;
+import org.greenify.greenify.model.enums.RollupPeriod;
+import org.greenify.greenify.model.enums.Unit;
+import org.greenify.greenify.repository.EntryChangeRepo;
+import org.greenify.greenify.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "entry.pipeline.coalesce-ms=600000",
+        "entry.pipeline.sweep-ms=600000",
+        "entry.pipeline.park-after=2"
+})
+class EntryChangePipelineTest {
+
+    @Autowired DailyEntryService entries;
+    @Autowired EntryChangePipeline pipeline;
+    @Autowired StreakService streaks;
+    @Autowired RollupService rollups;
+    @Autowired CategoryService categories;
+    @Autowired EntryChangeRepo changeRepo;
+    @Autowired UserRepo userRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepo, "pipe");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.delete(jdbc, userId);
+    }
+
+    @Test
+    void flushAppliesEveryAcknowledgedWrite() {
+        entries.upsert(userId, entry("2025-03-03", 7));
+        entries.upsert(userId, entry("2025-03-04", 7));
+        entries.upsert(userId, entry("2025-03-05", 2));
+        entries.upsert(userId, entry("2025-03-05", 7));
+
+        // Nothing has run yet: the coalescing window is far away.
+        assertThat(streaks.view(userId).version()).isEqualTo("none");
+
+        pipeline.flush(userId);
+
+        StreakView s = streaks.view(userId).view();
+        assertThat(s.current()).isEqualTo(3);
+        assertThat(s.longest()).isEqualTo(3);
+        assertThat(changeRepo.existsByUserId(userId)).isFalse();
+
+        List<RollupView> weeks = rollups.range(userId, RollupPeriod.WEEK,
+                LocalDate.parse("2025-03-03"), LocalDate.parse("2025-03-09"));
+        assertThat(weeks).hasSize(1);
+        assertThat(weeks.get(0).pointsTotal()).isEqualTo(42);
+        assertThat(weeks.get(0).entryDays()).isEqualTo(3);
+
+        List<CategoryTotalView> byCategory = categories.totals(userId,
+                LocalDate.parse("2025-03-03"), LocalDate.parse("2025-03-09"));
+        assertThat(byCategory).containsExactly(
+                new CategoryTotalView(Category.RECYCLING, Unit.COUNT, 21L, 42L, 3L));
+    }
+
+    @Test
+    void flushWithNothingPendingIsANoOp() {
+        pipeline.flush(userId);
+
+        assertThat(streaks.view(userId).version()).isEqualTo("none");
+    }
+
+    @Test
+    void changesThatKeepFailingAreParked() {
+        // No users row, so every run fails on the streak's foreign key.
+        Long ghost = -userId;
+        changeRepo.save(new EntryChange(ghost, LocalDate.parse("2025-03-03")));
+        try {
+            pipeline.flush(ghost);
+            assertThat(changeRepo.existsByUserIdAndParkedAtIsNull(ghost)).isTrue();
+
+            pipeline.flush(ghost);
+            assertThat(changeRepo.existsByUserIdAndParkedAtIsNull(ghost)).isFalse();
+            assertThat(changeRepo.existsByUserId(ghost)).isTrue();
+        } finally {
+            TestUsers.delete(jdbc, ghost);
+        }
+    }
+
+    private static DailyEntryUpsertDTO entry(String date, int recycleCount) {
+        return new DailyEntryUpsertDTO(date, 0, 0, recycleCount, false, false);
+    }
+}
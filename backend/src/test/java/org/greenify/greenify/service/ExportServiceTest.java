@@ -0,0 +1,90 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.model.enums.ExportFormat;
+import org.greenify.greenify.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "export.fetch-size=2",
+        "entry.pipeline.coalesce-ms=600000",
+        "entry.pipeline.sweep-ms=600000"
+})
+class ExportServiceTest {
+
+    @Autowired ExportService exports;
+    @Autowired DailyEntryService entries;
+    @Autowired UserRepo userRepo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired JWTService jwt;
+    @Autowired MockMvc mvc;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepo, "export");
+        entries.upsertBatch(userId, List.of(
+                new DailyEntryUpsertDTO("2025-02-03", 10, 1, 3, true, false),
+                new DailyEntryUpsertDTO("2025-02-01", 0, 0, 5, false, true),
+                new DailyEntryUpsertDTO("2025-02-02", 0, 2, 0, false, false)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.delete(jdbc, userId);
+    }
+
+    @Test
+    void csvStreamsEveryRowInDateOrder() throws Exception {
+        List<String> lines = export(ExportFormat.CSV);
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("user_id,date,");
+        assertThat(lines.get(1)).isEqualTo(userId + ",2025-02-01,0,0,5,false,true,13");
+        assertThat(lines.get(2)).isEqualTo(userId + ",2025-02-02,0,2,0,false,false,0");
+        assertThat(lines.get(3)).isEqualTo(userId + ",2025-02-03,10,1,3,true,false,6");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("{\"userId\":" + userId + ",\"date\":\"2025-02-01\",\"milesDriven\":0,"
+                + "\"trashCount\":0,\"recycleCount\":5,\"reusableBag\":false,\"reusableBottle\":true,\"pointsTotal\":13}");
+    }
+
+    @Test
+    void formatIsCaseInsensitiveAndAnUnknownOneIsABadRequest() throws Exception {
+        String auth = "Bearer " + jwt.generateToken(userId, "export-user");
+
+        mvc.perform(get("/api/daily-entry/export").param("format", "ndjson").header(HttpHeaders.AUTHORIZATION, auth))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/daily-entry/export").param("format", "xml").header(HttpHeaders.AUTHORIZATION, auth))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<String> export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exports.export(userId, format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,112 @@
+package org.greenify.greenify.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedScoresTest {
+
+    @Test
+    void tiesAreOrderedByUserId() {
+        RankedScores b = new RankedScores();
+        b.set(30, 50);
+        b.set(10, 50);
+        b.set(20, 80);
+        b.set(40, 50);
+
+        assertThat(b.top(10)).containsExactly(
+                new RankedScores.Ranked(1, 20, 80),
+                new RankedScores.Ranked(2, 10, 50),
+                new RankedScores.Ranked(3, 30, 50),
+                new RankedScores.Ranked(4, 40, 50));
+        assertThat(b.rankOf(30)).isEqualTo(new RankedScores.Ranked(3, 30, 50));
+    }
+
+    @Test
+    void removedUsersLeaveTheBoardAndOthersMoveUp() {
+        RankedScores b = new RankedScores();
+        b.set(1, 30);
+        b.set(2, 20);
+        b.set(3, 10);
+
+        b.remove(1);
+
+        assertThat(b.rankOf(1)).isNull();
+        assertThat(b.size()).isEqualTo(2);
+        assertThat(b.rankOf(2).rank()).isEqualTo(1);
+        assertThat(b.rankOf(3).rank()).isEqualTo(2);
+        assertThat(b.top(10)).extracting(RankedScores.Ranked::userId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void deltasThatCancelOutRemoveTheUser() {
+        RankedScores b = new RankedScores();
+        b.add(1, 15);
+        b.add(1, -15);
+
+        assertThat(b.rankOf(1)).isNull();
+        assertThat(b.top(10)).isEmpty();
+    }
+
+    @Test
+    void ranksFollowUpdates() {
+        RankedScores b = new RankedScores();
+        b.set(1, 10);
+        b.set(2, 20);
+        b.set(3, 30);
+
+        b.add(1, 25);
+        assertThat(b.rankOf(1)).isEqualTo(new RankedScores.Ranked(1, 1, 35));
+        assertThat(b.rankOf(3).rank()).isEqualTo(2);
+
+        b.set(3, 20);
+        // Tied with user 2 now, and ahead of user 3 by id.
+        assertThat(b.rankOf(2).rank()).isEqualTo(2);
+        assertThat(b.rankOf(3).rank()).isEqualTo(3);
+
+        b.add(2, -40);
+        assertThat(b.rankOf(2)).isEqualTo(new RankedScores.Ranked(3, 2, -20));
+    }
+
+    @Test
+    void topIsLimitedToN() {
+        RankedScores b = new RankedScores();
+        for (long id = 1; id <= 50; id++) b.set(id, id);
+
+        assertThat(b.top(3)).extracting(RankedScores.Ranked::userId).containsExactly(50L, 49L, 48L);
+        assertThat(b.top(0)).isEmpty();
+    }
+
+    @Test
+    void matchesASortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        RankedScores b = new RankedScores();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(200);
+            long delta = random.nextInt(41) - 20;
+            b.add(id, delta);
+            long score = expected.getOrDefault(id, 0L) + delta;
+            if (score == 0) expected.remove(id);
+            else expected.put(id, score);
+        }
+
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Long, Long>>comparingLong(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+        List<RankedScores.Ranked> top = b.top(sorted.size());
+        assertThat(b.size()).isEqualTo(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            RankedScores.Ranked want = new RankedScores.Ranked(i + 1, sorted.get(i).getKey(), sorted.get(i).getValue());
+            assertThat(top.get(i)).isEqualTo(want);
+            assertThat(b.rankOf(want.userId())).isEqualTo(want);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.model.DailyEntry;
+import org.greenify.greenify.model.enums.Category;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoringRulesTest {
+
+    @Test
+    void splitsEntryIntoCategories() {
+        CategoryBreakdown b = ScoringRules.DEFAULT.breakdown(12, 3, 4, true, false);
+
+        assertThat(b.quantity(Category.TRANSPORT)).isEqualTo(12);
+        assertThat(b.points(Category.TRANSPORT)).isEqualTo(-2);
+        assertThat(b.points(Category.WASTE)).isEqualTo(-3);
+        assertThat(b.points(Category.RECYCLING)).isEqualTo(8);
+        assertThat(b.quantity(Category.REUSABLE)).isEqualTo(1);
+        assertThat(b.points(Category.REUSABLE)).isEqualTo(3);
+        assertThat(b.isEmpty(Category.FOOD)).isTrue();
+        assertThat(b.totalPoints()).isEqualTo(6);
+        assertThat(ScoringRules.DEFAULT.score(12, 3, 4, true, false)).isEqualTo(6);
+    }
+
+    @Test
+    void entryPointsAreCategoryTotalFlooredAtZero() {
+        DailyEntry e = new DailyEntry();
+        e.setMilesDriven(100);
+        e.setRecycleCount(1);
+
+        assertThat(ScoringRules.DEFAULT.breakdown(100, 0, 1, false, false).totalPoints()).isEqualTo(-18);
+        assertThat(ScoringRules.DEFAULT.score(e)).isZero();
+    }
+
+    @Test
+    void compiledRulesUseTheirOwnWeights() {
+        ScoringRules rules = ScoringRules.compile(7, Map.of(Category.RECYCLING, 1.5, Category.TRANSPORT, -0.25));
+
+        assertThat(rules.version()).isEqualTo(7);
+        assertThat(rules.points(Category.RECYCLING, 3)).isEqualTo(5);
+        assertThat(rules.points(Category.TRANSPORT, 2)).isEqualTo(-1);
+        assertThat(rules.points(Category.WASTE, 10)).isZero();
+        assertThat(rules.perUnit()).containsEntry(Category.FOOD, 0.0);
+    }
+
+    @Test
+    void rejectsNonFiniteWeights() {
+        assertThatThrownBy(() -> ScoringRules.compile(1, Map.of(Category.WASTE, Double.NaN)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
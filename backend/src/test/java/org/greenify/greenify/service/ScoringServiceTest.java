@@ -0,0 +1,80 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.dto.DailyEntryUpsertDTO;
+import org.greenify.greenify.dto.RescoreRow;
+import org.greenify.greenify.model.enums.Category;
+import org.greenify.greenify.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "entry.pipeline.coalesce-ms=600000",
+        "entry.pipeline.sweep-ms=600000"
+})
+class ScoringServiceTest {
+
+    @Autowired ScoringService scoring;
+    @Autowired EntryRescorer rescorer;
+    @Autowired DailyEntryService entries;
+    @Autowired EntryChangePipeline pipeline;
+    @Autowired StreakService streaks;
+    @Autowired UserRepo userRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = TestUsers.create(userRepo, "score");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.delete(jdbc, userId);
+    }
+
+    // Re-scores only the fixture's rows: publishing would activate the rules and re-score the whole shared database.
+    @Test
+    void rescoringAppliesNewRulesToHistoricalEntries() {
+        entries.upsert(userId, new DailyEntryUpsertDTO("2025-05-01", 0, 0, 2, false, false));
+        pipeline.flush(userId);
+        assertThat(pointsOn("2025-05-01")).isEqualTo(4);
+        assertThat(streaks.view(userId).view().current()).isZero();
+
+        Map<Category, Double> richer = new EnumMap<>(scoring.active().perUnit());
+        richer.put(Category.RECYCLING, 5.0);
+        ScoringRules next = ScoringRules.compile(scoring.active().version() + 1, richer);
+        List<RescoreRow> rows = jdbc.query("""
+                        select id, version, miles_driven, trash_count, recycle_count, reusable_bag, reusable_bottle
+                        from daily_entry where user_id = ?
+                        """,
+                (rs, i) -> new RescoreRow(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                        rs.getBoolean(6), rs.getBoolean(7)),
+                userId);
+        assertThat(rescorer.rescore(rows, next)).isEqualTo(1);
+
+        assertThat(pointsOn("2025-05-01")).isEqualTo(10);
+        assertThat(jdbc.queryForObject("select scoring_version from daily_entry where user_id = ?",
+                Integer.class, userId)).isEqualTo(next.version());
+
+        // The re-score went through the pipeline, so the streak now counts the day.
+        pipeline.flush(userId);
+        assertThat(streaks.view(userId).view().current()).isEqualTo(1);
+    }
+
+    private int pointsOn(String date) {
+        return jdbc.queryForObject("select points_total from daily_entry where user_id = ? and date = ?",
+                Integer.class, userId, LocalDate.parse(date));
+    }
+}
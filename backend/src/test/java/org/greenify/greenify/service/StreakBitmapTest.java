@@ -0,0 +1,132 @@
+package org.greenify.greenify.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreakBitmapTest {
+
+    private static final LocalDate ORIGIN = LocalDate.parse("2025-01-01");
+
+    @Test
+    void runsCrossWordBoundaries() {
+        StreakBitmap bits = StreakBitmap.empty(ORIGIN);
+        setRange(bits, 60, 70);
+
+        assertThat(bits.runEndingAt(day(70))).isEqualTo(11);
+        assertThat(bits.runEndingAt(day(64))).isEqualTo(5);
+        assertThat(bits.longestRun()).isEqualTo(11);
+        assertThat(bits.lastSet()).isEqualTo(day(70));
+    }
+
+    @Test
+    void runsSpanningWholeWordsAreCounted() {
+        StreakBitmap bits = StreakBitmap.empty(ORIGIN);
+        setRange(bits, 10, 200);
+
+        assertThat(bits.runEndingAt(day(200))).isEqualTo(191);
+        assertThat(bits.runEndingAt(day(127))).isEqualTo(118);
+        assertThat(bits.longestRun()).isEqualTo(191);
+    }
+
+    @Test
+    void settingADayBeforeTheOriginGrowsItByWholeWords() {
+        StreakBitmap bits = StreakBitmap.empty(ORIGIN);
+        setRange(bits, 0, 2);
+
+        bits.set(day(-1), true);
+
+        assertThat(bits.origin()).isEqualTo(ORIGIN.minusDays(64));
+        assertThat(bits.get(day(-1))).isTrue();
+        assertThat(bits.get(day(2))).isTrue();
+        assertThat(bits.runEndingAt(day(2))).isEqualTo(4);
+        assertThat(bits.longestRun()).isEqualTo(4);
+    }
+
+    @Test
+    void clearingADayBeforeTheOriginChangesNothing() {
+        StreakBitmap bits = StreakBitmap.empty(ORIGIN);
+        bits.set(day(3), true);
+
+        bits.set(day(-100), false);
+        bits.set(day(1000), false);
+
+        assertThat(bits.origin()).isEqualTo(ORIGIN);
+        assertThat(bits.encode()).hasSize(Long.BYTES);
+    }
+
+    @Test
+    void clearingADayBreaksTheCurrentRun() {
+        StreakBitmap bits = StreakBitmap.empty(ORIGIN);
+        setRange(bits, 0, 99);
+
+        bits.set(day(80), false);
+
+        assertThat(bits.runEndingAt(day(99))).isEqualTo(19);
+        assertThat(bits.runEndingAt(day(80))).isZero();
+        assertThat(bits.runEndingAt(day(79))).isEqualTo(80);
+        assertThat(bits.longestRun()).isEqualTo(80);
+    }
+
+    @Test
+    void encodeDecodeRoundTripsAndTrimsEmptyTrailingWords() {
+        StreakBitmap bits = StreakBitmap.empty(ORIGIN);
+        setRange(bits, 5, 9);
+        bits.set(day(130), true);
+        bits.set(day(500), true);
+        bits.set(day(500), false);
+
+        byte[] bytes = bits.encode();
+        StreakBitmap copy = StreakBitmap.decode(bits.origin(), bytes);
+
+        assertThat(bytes).hasSize(3 * Long.BYTES);
+        for (int d = 0; d < 600; d++) {
+            assertThat(copy.get(day(d))).as("day %d", d).isEqualTo(bits.get(day(d)));
+        }
+        assertThat(copy.lastSet()).isEqualTo(day(130));
+        assertThat(copy.encode()).isEqualTo(bytes);
+    }
+
+    @Test
+    void emptyBitmapHasNoRuns() {
+        StreakBitmap bits = StreakBitmap.decode(ORIGIN, StreakBitmap.empty(ORIGIN).encode());
+
+        assertThat(bits.lastSet()).isNull();
+        assertThat(bits.longestRun()).isZero();
+        assertThat(bits.runEndingAt(ORIGIN)).isZero();
+    }
+
+    @Test
+    void matchesADayByDayCountUnderRandomEdits() {
+        Random random = new Random(7);
+        int span = 400;
+        boolean[] expected = new boolean[span];
+        StreakBitmap bits = StreakBitmap.empty(ORIGIN.plusDays(200));
+        for (int i = 0; i < 3_000; i++) {
+            int d = random.nextInt(span);
+            boolean q = random.nextInt(4) != 0;
+            expected[d] = q;
+            bits.set(day(d), q);
+        }
+
+        int longest = 0;
+        int run = 0;
+        for (int d = 0; d < span; d++) {
+            run = expected[d] ? run + 1 : 0;
+            longest = Math.max(longest, run);
+            assertThat(bits.runEndingAt(day(d))).as("run ending day %d", d).isEqualTo(run);
+        }
+        assertThat(bits.longestRun()).isEqualTo(longest);
+    }
+
+    private static void setRange(StreakBitmap bits, int from, int to) {
+        for (int d = from; d <= to; d++) bits.set(day(d), true);
+    }
+
+    private static LocalDate day(int offset) {
+        return ORIGIN.plusDays(offset);
+    }
+}
@@ -0,0 +1,37 @@
+package org.greenify.greenify.service;
+
+import org.greenify.greenify.model.User;
+import org.greenify.greenify.repository.UserRepo;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixture users for the database-backed tests. Each test works on its own fresh user and deletes
+ * every row it owns afterwards, so tests can share one database.
+ */
+final class TestUsers {
+
+    // Every table holding per-user rows, children before users. A new per-user table is added here.
+    private static final List<String> USER_TABLES = List.of(
+            "entry_change", "entry_rollup", "category_activity", "streak",
+            "daily_entry_archive", "daily_entry", "users");
+
+    private TestUsers() {}
+
+    static Long create(UserRepo userRepo, String prefix) {
+        User u = new User();
+        String name = prefix + "-" + UUID.randomUUID();
+        u.setUsername(name);
+        u.setEmail(name + "@example.com");
+        u.setPassword("x");
+        return userRepo.save(u).getId();
+    }
+
+    static void delete(JdbcTemplate jdbc, Long userId) {
+        for (String table : USER_TABLES) {
+            jdbc.update("delete from " + table + " where user_id = ?", userId);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib'
+import { readdirSync, readFileSync, statSync, writeFileSync } from 'node:fs'
+import { join, resolve } from 'node:path'
+
+const COMPRESSIBLE = /\.(js|css|html|svg|json|txt)$/
+
+// Writes max-level .gz and .br copies next to every text file of at least `threshold` bytes.
+// The backend serves these directly, so nothing is compressed per request.
+export function compressDir(dir, threshold = 1024) {
+  for (const name of readdirSync(dir)) {
+    const file = join(dir, name)
+    if (statSync(file).isDirectory()) {
+      compressDir(file, threshold)
+      continue
+    }
+    if (!COMPRESSIBLE.test(name)) continue
+    const data = readFileSync(file)
+    if (data.length < threshold) continue
+    writeFileSync(file + '.gz', gzipSync(data, { level: 9 }))
+    writeFileSync(file + '.br', brotliCompressSync(data, {
+      params: {
+        [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+        [constants.BROTLI_PARAM_SIZE_HINT]: data.length,
+      },
+    }))
+  }
+}
+
+export default function precompress(options = {}) {
+  let outDir
+  return {
+    name: 'precompress',
+    apply: 'build',
+    configResolved(config) {
+      outDir = resolve(config.root, config.build.outDir)
+    },
+    closeBundle() {
+      compressDir(outDir, options.threshold)
+    },
+  }
+}
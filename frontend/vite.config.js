@@ -1,8 +1,9 @@
 import { defineConfig } from 'vite'
 import react from '@vitejs/plugin-react'
+import precompress from './precompress.js'
 
 export default defineConfig({
-  plugins: [react()],
+  plugins: [react(), precompress()],
   server: {
     port: 5173,
     proxy: {
@@ -13,5 +14,10 @@ export default defineConfig({
       }
     }
   },
-  build: { sourcemap: true }
+  // The backend serves the bundle; see WebConfig for caching and the .gz/.br variants.
+  build: {
+    sourcemap: true,
+    outDir: '../backend/src/main/resources/static',
+    emptyOutDir: true
+  }
 })